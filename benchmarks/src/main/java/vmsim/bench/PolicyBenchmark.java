@@ -0,0 +1,67 @@
+package vmsim.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vmsim.Policies;
+import vmsim.ReplacementPolicy;
+
+/**
+ * Accesses per second for every replacement policy. One operation is one page
+ * reference, so with {@code -prof gc} the normalised allocation rate reads as
+ * bytes allocated per access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyBenchmark {
+    static final int TRACE_LENGTH = 1 << 20;
+
+    @Param({"FIFO", "LRU", "MRU", "Optimal", "LIFO", "Random", "CLOCK", "Enhanced CLOCK", "NRU", "CLOCK-Pro", "ARC", "2Q", "LIRS",
+        "Sampled LRU", "Sampled LFU"})
+    public String algorithm;
+
+    @Param({"64", "1024", "16384"})
+    public int frames;
+
+    @Param({"uniform", "zipf", "scan", "loop", "phases"})
+    public String shape;
+
+    private int[] trace;
+    private ReplacementPolicy policy;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        trace = TraceShapes.generate(shape, frames, TRACE_LENGTH, 42);
+        policy = Policies.create(algorithm, frames, trace);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        policy.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRACE_LENGTH)
+    public long access() {
+        long faults = 0;
+        for (int page : trace) {
+            if (policy.access(page)) faults++;
+        }
+        return faults;
+    }
+}
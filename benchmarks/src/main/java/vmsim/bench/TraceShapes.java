@@ -0,0 +1,42 @@
+package vmsim.bench;
+
+import vmsim.workload.LoopWorkload;
+import vmsim.workload.PhaseWorkload;
+import vmsim.workload.UniformWorkload;
+import vmsim.workload.Workload;
+import vmsim.workload.ZipfWorkload;
+
+/** Synthetic reference strings sized relative to the frame count under test. */
+final class TraceShapes {
+
+    private TraceShapes() { }
+
+    static int[] generate(String shape, int frames, int length, long seed) {
+        Workload workload;
+        switch (shape) {
+            case "uniform":
+                workload = new UniformWorkload(frames * 4, length, seed);
+                break;
+            case "zipf":
+                workload = new ZipfWorkload(frames * 4, 0.99, length, seed);
+                break;
+            case "scan":
+                workload = new LoopWorkload(frames * 8, length);
+                break;
+            case "loop":
+                // Slightly larger than memory: the classic worst case for LRU.
+                workload = new LoopWorkload(frames + Math.max(1, frames / 4), length);
+                break;
+            case "phases": {
+                int workingSet = Math.max(1, frames * 3 / 4);
+                workload = new PhaseWorkload(workingSet, Math.max(1, length / 8), workingSet / 2, length, seed);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown trace shape: " + shape);
+        }
+        int[] trace = new int[length];
+        if (length > 0) workload.read(trace);
+        return trace;
+    }
+}
@@ -0,0 +1,1332 @@
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.border.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import vmsim.FaultSweep;
+import vmsim.FramePolicy;
+import vmsim.MonteCarlo;
+import vmsim.Policies;
+import vmsim.RandomPolicy;
+import vmsim.ReplacementPolicy;
+import vmsim.Simulation;
+import vmsim.StepLog;
+import vmsim.WindowedOptimalPolicy;
+import vmsim.metrics.PolicyMetrics;
+import vmsim.metrics.RunMetrics;
+import vmsim.multi.MultiProcessSimulation;
+import vmsim.multi.ProcessTrace;
+import vmsim.sampling.SampledSweep;
+import vmsim.trace.ArrayTraceSource;
+import vmsim.trace.TraceFiles;
+import vmsim.trace.TraceSource;
+import vmsim.workload.Workloads;
+import vmsim.writeback.IoCost;
+import vmsim.writeback.WriteBackSimulation;
+
+public class VirtualMemorySimulator extends JFrame {
+    private static final int VISUALIZE_LIMIT = 1 << 20;
+    private static final int IN_MEMORY_LIMIT = 1 << 26;
+    private static final int OPTIMAL_LOOKAHEAD = 1 << 16;
+    /** Series colours shared by the bar chart and the fault curves, so an algorithm keeps its colour. */
+    private static final Color[] PALETTE = {
+        new Color(0x6A0572), new Color(0xAB83A1), new Color(0x4B8E8D),
+        new Color(0x5EAAA8), new Color(0xA3E4DB), new Color(0xF59E0B),
+        new Color(0xE76F51), new Color(0x8AB17D), new Color(0x2A9D8F),
+        new Color(0xE9C46A), new Color(0x9D4EDD), new Color(0x264653),
+        new Color(0xF4A261), new Color(0x3A86FF), new Color(0xD62828)
+    };
+    private JPanel controlPanel, inputPanel, visualizationPanel;
+    private JComboBox<String> algorithmCombo;
+    private JTextField frameInput, sequenceInput, sweepInput, sampleInput;
+    private JTextArea resultArea, explanationArea;
+    private JButton setupButton, visualizeButton , analyseButton, sweepButton, cancelSweepButton, loadTraceButton, loadLogButton, exportMetricsButton;
+    private JProgressBar sweepProgress;
+    private SwingWorker<long[][], ?> sweepWorker;
+    private volatile Runnable cancelActiveSweep;
+    private Path traceFile;
+    private int numFrames;
+    private String selectedAlgorithm;
+    private int[] pageSequence;
+    private Timer animationTimer;
+    private int currSeqIndex = 0;
+    private ReplacementPolicy stepPolicy;
+    private StepLog stepLog;
+    private TimelinePanel timeline;
+    private RunMetrics lastMetrics;
+
+    public VirtualMemorySimulator() {
+        setTitle("Virtual Memory Management Simulator");
+        setSize(1300, 800);
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+        getContentPane().setBackground(new Color(0x006A71));
+
+        setupControlPanel();
+        setupInputPanel();
+
+        add(controlPanel, BorderLayout.WEST);
+        add(inputPanel, BorderLayout.CENTER);
+    }
+
+    private void setupControlPanel() {
+        controlPanel = new JPanel();
+        controlPanel.setLayout(new BoxLayout(controlPanel, BoxLayout.Y_AXIS));
+        controlPanel.setPreferredSize(new Dimension(300, getHeight()));
+        controlPanel.setBackground(new Color(0x48A6A7));
+        controlPanel.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
+
+        JLabel title = new JLabel("Configure Simulator");
+        title.setFont(new Font("Segoe UI", Font.ITALIC, 20));
+        title.setForeground(new Color(0x0F0E47));
+        title.setAlignmentX(Component.CENTER_ALIGNMENT);
+        controlPanel.add(title);
+        controlPanel.add(Box.createVerticalStrut(15));
+
+        controlPanel.add(createLabel("Number of Frames:"));
+        frameInput = createTextField();
+        controlPanel.add(frameInput);
+        controlPanel.add(Box.createVerticalStrut(10));
+
+        controlPanel.add(createLabel("Select Algorithm:"));
+        algorithmCombo = new JComboBox<>(Policies.NAMES);
+        algorithmCombo.setMaximumSize(new Dimension(200, 30));
+        algorithmCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        algorithmCombo.setBackground(new Color(0x9ACBD0));
+        algorithmCombo.setForeground(new Color(0x0F0E47));
+        controlPanel.add(algorithmCombo);
+        controlPanel.add(Box.createVerticalStrut(20));
+
+        setupButton = new JButton("Setup");
+        styleButton(setupButton, new Color(0x006A71));
+        controlPanel.add(setupButton);
+        controlPanel.add(Box.createVerticalStrut(20));
+
+        controlPanel.add(createLabel("Results:"));
+        resultArea = new JTextArea(4, 15);
+        resultArea.setEditable(false);
+        resultArea.setLineWrap(true);
+        resultArea.setWrapStyleWord(true);
+        resultArea.setBackground(new Color(0xD8E6AD));
+        resultArea.setForeground(new Color(0x0F0E47));
+        resultArea.setFont(new Font("Segoe", Font.ITALIC, 14));
+        resultArea.setBorder(BorderFactory.createLineBorder(new Color(0x006A71)));
+        controlPanel.add(new JScrollPane(resultArea));
+
+        setupButton.addActionListener(e -> {
+            try {
+                numFrames = Integer.parseInt(frameInput.getText().trim());
+                if (numFrames < 1) throw new NumberFormatException();
+                selectedAlgorithm = (String) algorithmCombo.getSelectedItem();
+                inputPanel.setVisible(true);
+                inputPanel.revalidate();
+                inputPanel.repaint();
+                resultArea.setText(getAlgorithmDescription(selectedAlgorithm));
+
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid number of frames.");
+            }
+        });
+    }
+
+    private void setupInputPanel() {
+        inputPanel = new JPanel(new BorderLayout(10, 10));
+        inputPanel.setBackground(new Color(0x006A71));
+        inputPanel.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
+
+        JPanel top = new JPanel();
+        top.setBackground(new Color(0x006A71));
+        top.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
+
+        JLabel seqLabel = new JLabel("Enter Page Sequence:");
+        seqLabel.setForeground(new Color(0xF2EFE7));
+        seqLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        top.add(seqLabel);
+
+        sequenceInput = new JTextField(25);
+        sequenceInput.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        sequenceInput.setBackground(new Color(0x9ACBD0));
+        sequenceInput.setForeground(new Color(0x0F0E47));
+        top.add(sequenceInput);
+        sequenceInput.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { traceFile = null; }
+            @Override public void removeUpdate(DocumentEvent e) { traceFile = null; }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+
+        loadTraceButton = new JButton("Load Trace...");
+        styleButton(loadTraceButton, new Color(0x006A71));
+        top.add(loadTraceButton);
+
+        loadLogButton = new JButton("Load Log...");
+        styleButton(loadLogButton, new Color(0x006A71));
+        top.add(loadLogButton);
+
+        visualizeButton = new JButton("Visualize");
+        styleButton(visualizeButton, new Color(0x006A71));
+        top.add(visualizeButton);
+
+        analyseButton = new JButton("Analyse");
+        styleButton(analyseButton, new Color(0x4B8E8D));
+        top.add(analyseButton);
+
+        exportMetricsButton = new JButton("Export Metrics...");
+        styleButton(exportMetricsButton, new Color(0x4B8E8D));
+        exportMetricsButton.setEnabled(false);
+        top.add(exportMetricsButton);
+
+        JLabel sampleLabel = new JLabel("Sample %:");
+        sampleLabel.setForeground(new Color(0xF2EFE7));
+        sampleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        top.add(sampleLabel);
+
+        sampleInput = new JTextField("100", 4);
+        sampleInput.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        sampleInput.setBackground(new Color(0x9ACBD0));
+        sampleInput.setForeground(new Color(0x0F0E47));
+        top.add(sampleInput);
+
+        JLabel sweepLabel = new JLabel("Sweep Frames:");
+        sweepLabel.setForeground(new Color(0xF2EFE7));
+        sweepLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        top.add(sweepLabel);
+
+        sweepInput = new JTextField("1-64", 7);
+        sweepInput.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        sweepInput.setBackground(new Color(0x9ACBD0));
+        sweepInput.setForeground(new Color(0x0F0E47));
+        top.add(sweepInput);
+
+        sweepButton = new JButton("Sweep");
+        styleButton(sweepButton, new Color(0x4B8E8D));
+        top.add(sweepButton);
+
+        cancelSweepButton = new JButton("Cancel");
+        styleButton(cancelSweepButton, new Color(0xAB83A1));
+        cancelSweepButton.setEnabled(false);
+        top.add(cancelSweepButton);
+
+        sweepProgress = new JProgressBar();
+        sweepProgress.setStringPainted(true);
+        sweepProgress.setVisible(false);
+        top.add(sweepProgress);
+
+        inputPanel.add(top, BorderLayout.NORTH);
+
+        visualizationPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
+        visualizationPanel.setBackground(new Color(34, 40, 49));
+        inputPanel.add(new JScrollPane(visualizationPanel), BorderLayout.CENTER);
+
+        explanationArea = new JTextArea(8, 80);
+        explanationArea.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        explanationArea.setEditable(false);
+        explanationArea.setLineWrap(true);
+        explanationArea.setWrapStyleWord(true);
+        explanationArea.setBackground(new Color(0xD8E6AD));
+        explanationArea.setForeground(new Color(0x0F0E47));
+        explanationArea.setBorder(BorderFactory.createTitledBorder(new LineBorder(new Color(34, 40, 49)), "Execution Steps", TitledBorder.LEFT, TitledBorder.TOP, new Font("Segoe UI", Font.ITALIC, 18), new Color(34, 40, 49)));
+
+        inputPanel.add(explanationArea, BorderLayout.SOUTH);
+        inputPanel.setVisible(false);
+
+        loadTraceButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Load Trace (text or binary archive)");
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+            sequenceInput.setText("[trace file] " + file.getFileName());
+            traceFile = file;
+        });
+
+        loadLogButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Load Step Log");
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                stepLog = StepLog.load(chooser.getSelectedFile().toPath());
+                showTimeline(false);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot load step log: " + ex.getMessage());
+            }
+        });
+
+        visualizeButton.addActionListener(e -> {
+            try {
+                pageSequence = readSequence(VISUALIZE_LIMIT);
+                simulateAndVisualize();
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot visualize trace: " + ex.getMessage());
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid page sequence.");
+            }
+        });
+
+        analyseButton.addActionListener(e -> {
+            if (traceFile != null) {
+                Path file = traceFile;
+                analyseStream(file.getFileName().toString(), () -> TraceFiles.open(file));
+                return;
+            }
+            if (Workloads.isSpec(sequenceInput.getText())) {
+                String spec = sequenceInput.getText().trim();
+                analyseStream(spec, () -> Workloads.open(spec));
+                return;
+            }
+            if (sequenceInput.getText().indexOf(':') >= 0) {
+                analyseProcesses(sequenceInput.getText());
+                return;
+            }
+            int[] testSequence;
+            BitSet writes = new BitSet();
+            try {
+                testSequence = parseSequence(sequenceInput.getText(), writes);
+            }
+            catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid page sequence.");
+                return;
+            }
+            String[] algorithms = Policies.NAMES;
+            ReplacementPolicy[] policies = new ReplacementPolicy[algorithms.length];
+            for (int i = 0; i < algorithms.length; i++) policies[i] = Policies.create(algorithms[i], numFrames, testSequence);
+            RunMetrics metrics = new RunMetrics();
+            long[] faults;
+            try {
+                faults = Simulation.countFaults(policies, new ArrayTraceSource(testSequence), metrics);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            Map<String, Long> faultResults = new LinkedHashMap<>();
+            for (int i = 0; i < algorithms.length; i++) faultResults.put(algorithms[i], faults[i]);
+            publishMetrics(metrics);
+            int[] sequence = testSequence;
+            int frames = numFrames;
+            analyseButton.setEnabled(false);
+            new SwingWorker<String, Void>() {
+                @Override
+                protected String doInBackground() {
+                    String note = describeMonteCarlo(sequence, frames);
+                    return writes.isEmpty() ? note : note + describeWriteBacks(sequence, writes, frames);
+                }
+
+                @Override
+                protected void done() {
+                    analyseButton.setEnabled(true);
+                    try {
+                        showComparison(faultResults, describeMetrics(metrics) + get());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(VirtualMemorySimulator.this, "Cannot analyse sequence: "
+                            + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                    }
+                }
+            }.execute();
+        });
+
+        exportMetricsButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export Metrics (.json or .csv)");
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                lastMetrics.save(chooser.getSelectedFile().toPath());
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot export metrics: " + ex.getMessage());
+            }
+        });
+
+        sweepButton.addActionListener(e -> {
+            Callable<int[]> loader;
+            int minFrames, maxFrames;
+            double rate;
+            try {
+                String[] range = sweepInput.getText().trim().split("\\s*-\\s*");
+                minFrames = range.length > 1 ? Integer.parseInt(range[0]) : 1;
+                maxFrames = Integer.parseInt(range[range.length - 1]);
+                if (minFrames < 1 || maxFrames < minFrames) throw new NumberFormatException();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid frame range. Use e.g. 1-4096.");
+                return;
+            }
+            try {
+                rate = sampleRate();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid sample percentage. Use a number above 0 and up to 100.");
+                return;
+            }
+            if (rate < 1 && traceFile != null) {
+                Path file = traceFile;
+                runSampledSweep(() -> TraceFiles.open(file), minFrames, maxFrames, rate);
+                return;
+            }
+            if (rate < 1 && Workloads.isSpec(sequenceInput.getText())) {
+                String spec = sequenceInput.getText().trim();
+                runSampledSweep(() -> Workloads.open(spec), minFrames, maxFrames, rate);
+                return;
+            }
+            if (traceFile != null) {
+                Path file = traceFile;
+                loader = () -> {
+                    try (TraceSource source = TraceFiles.open(file)) {
+                        return TraceFiles.readAll(source, IN_MEMORY_LIMIT);
+                    }
+                };
+            } else {
+                try {
+                    int[] testSequence = readSequence(IN_MEMORY_LIMIT);
+                    loader = () -> testSequence;
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(this, "Invalid page sequence.");
+                    return;
+                }
+            }
+            if (rate < 1) {
+                runSampledSweep(() -> new ArrayTraceSource(loader.call()), minFrames, maxFrames, rate);
+                return;
+            }
+            runSweep(loader, minFrames, maxFrames);
+        });
+
+        cancelSweepButton.addActionListener(e -> {
+            if (sweepWorker != null) sweepWorker.cancel(false);
+        });
+    }
+
+    /** The sampling rate from the sample percentage; 1 samples every page. */
+    private double sampleRate() {
+        double percent = Double.parseDouble(sampleInput.getText().trim());
+        if (!(percent > 0 && percent <= 100)) throw new NumberFormatException("Sample percentage out of range: " + percent);
+        return percent / 100;
+    }
+
+    private int[] readSequence(int limit) throws IOException {
+        if (traceFile != null) {
+            try (TraceSource source = TraceFiles.open(traceFile)) {
+                return TraceFiles.readAll(source, limit);
+            }
+        }
+        String text = sequenceInput.getText();
+        if (Workloads.isSpec(text)) {
+            try (TraceSource source = Workloads.open(text)) {
+                return TraceFiles.readAll(source, limit);
+            }
+        }
+        return parseSequence(text, new BitSet());
+    }
+
+    /** Page numbers separated by whitespace; a trailing w marks a store, as in 7w, and r a plain read. */
+    private static int[] parseSequence(String text, BitSet writes) {
+        String[] seq = text.trim().split("\\s+");
+        int[] pages = new int[seq.length];
+        for (int i = 0; i < seq.length; i++) {
+            String token = seq[i];
+            char last = token.isEmpty() ? ' ' : Character.toLowerCase(token.charAt(token.length() - 1));
+            if (last == 'w' || last == 'r') {
+                if (last == 'w') writes.set(i);
+                token = token.substring(0, token.length() - 1);
+            }
+            pages[i] = Integer.parseInt(token);
+        }
+        return pages;
+    }
+
+    private static String describeMonteCarlo(int[] sequence, int frames) {
+        StringBuilder sb = new StringBuilder(String.format("%n%nOver %d seeds (mean faults, 95%% confidence interval):%n", MonteCarlo.DEFAULT_RUNS));
+        for (String algorithm : Policies.NAMES) {
+            if (!Policies.randomized(algorithm)) continue;
+            MonteCarlo.Result r = new MonteCarlo(sequence, algorithm, frames, MonteCarlo.DEFAULT_RUNS, RandomPolicy.DEFAULT_SEED)
+                .run(ForkJoinPool.commonPool());
+            sb.append(String.format("%s ➝ %.2f [%.2f, %.2f], standard deviation %.2f%n", algorithm, r.mean(), r.low(), r.high(), r.standardDeviation()));
+        }
+        return sb.toString();
+    }
+
+    private static String describeWriteBacks(int[] sequence, BitSet writes, int frames) {
+        StringBuilder sb = new StringBuilder(String.format("%n%nWrite-back I/O (%d stores; page-ins / write-backs / operations / time at %s ns):%n",
+            writes.cardinality(), IoCost.DEFAULT));
+        for (String algorithm : Policies.NAMES) {
+            FramePolicy policy = (FramePolicy) Policies.create(algorithm, frames, sequence);
+            WriteBackSimulation.Result r = new WriteBackSimulation(policy, IoCost.DEFAULT).run(sequence, writes);
+            sb.append(String.format("%s ➝ %d / %d / %d / %.1f ms%n", algorithm, r.faults(), r.writeBacks(), r.ioOperations(), r.ioTime() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    /** Streams the trace through every policy; the opener must give the same references each time it is called. */
+    private void analyseStream(String label, Callable<TraceSource> opener) {
+        double rate;
+        try {
+            rate = sampleRate();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid sample percentage. Use a number above 0 and up to 100.");
+            return;
+        }
+        if (rate < 1) {
+            analyseSampled(label, opener, rate);
+            return;
+        }
+        analyseButton.setEnabled(false);
+        resultArea.setText("Analysing " + label + "...");
+        int frames = numFrames;
+        RunMetrics metrics = new RunMetrics();
+        new SwingWorker<Map<String, Long>, Void>() {
+            private String note = "";
+
+            @Override
+            protected Map<String, Long> doInBackground() throws Exception {
+                List<String> streamed = new ArrayList<>();
+                List<ReplacementPolicy> policies = new ArrayList<>();
+                for (String algo : Policies.NAMES) {
+                    if (Policies.needsTrace(algo)) continue;
+                    streamed.add(algo);
+                    policies.add(Policies.create(algo, frames, null));
+                }
+                WindowedOptimalPolicy windowed = new WindowedOptimalPolicy(frames, OPTIMAL_LOOKAHEAD);
+                policies.add(windowed);
+                long[] faults;
+                try (TraceSource source = opener.call()) {
+                    faults = Simulation.countFaults(policies.toArray(new ReplacementPolicy[0]), source, metrics);
+                }
+                Map<String, Long> results = new LinkedHashMap<>();
+                for (String algo : Policies.NAMES) {
+                    int i = streamed.indexOf(algo);
+                    if (i >= 0) {
+                        results.put(algo, faults[i]);
+                        continue;
+                    }
+                    // Exact Optimal needs the whole future; past the in-memory limit the
+                    // windowed lookahead result stands in for it.
+                    long approx = faults[faults.length - 1];
+                    try (TraceSource source = opener.call()) {
+                        int[] trace = TraceFiles.readAll(source, IN_MEMORY_LIMIT);
+                        ReplacementPolicy optimal = Policies.create(algo, frames, trace);
+                        long exact = Simulation.countFaults(new ReplacementPolicy[] {optimal}, new ArrayTraceSource(trace), metrics)[0];
+                        results.put(algo, exact);
+                        note = "\n" + windowed.name() + " ➝ " + approx + " faults (+" + (approx - exact) + " over exact)";
+                    } catch (IOException ex) {
+                        results.put(windowed.name(), approx);
+                        note = "\nExact Optimal skipped: " + ex.getMessage();
+                    }
+                }
+                return results;
+            }
+
+            @Override
+            protected void done() {
+                analyseButton.setEnabled(true);
+                try {
+                    resultArea.setText("");
+                    Map<String, Long> results = get();
+                    publishMetrics(metrics);
+                    showComparison(results, note + describeMetrics(metrics));
+                } catch (InterruptedException | ExecutionException ex) {
+                    if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                    JOptionPane.showMessageDialog(VirtualMemorySimulator.this, "Cannot analyse trace: "
+                        + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                }
+            }
+        }.execute();
+    }
+
+    /** Estimates every streamable policy's faults from the sampled pages of one pass over the trace. */
+    private void analyseSampled(String label, Callable<TraceSource> opener, double rate) {
+        String[] algorithms = Arrays.stream(Policies.NAMES).filter(a -> !Policies.needsTrace(a)).toArray(String[]::new);
+        int frames = numFrames;
+        String percent = sampleInput.getText().trim();
+        SampledSweep sweep = new SampledSweep(algorithms, new int[] {frames}, rate, SampledSweep.DEFAULT_SETS, RandomPolicy.DEFAULT_SEED);
+        analyseButton.setEnabled(false);
+        resultArea.setText("Sampling " + label + "...");
+        new SwingWorker<Map<String, Long>, Void>() {
+            private String note = "";
+
+            @Override
+            protected Map<String, Long> doInBackground() throws Exception {
+                SampledSweep.Result result;
+                try (TraceSource source = opener.call()) {
+                    result = sweep.run(source, ForkJoinPool.commonPool(), null);
+                }
+                Map<String, Long> results = new LinkedHashMap<>();
+                StringBuilder sb = new StringBuilder(String.format("%nEstimated from %s%% of the pages of %,d references, %d frames each in %d samples; 95%% intervals:",
+                    percent, result.references(), sweep.scaledFrames(0), sweep.sets()));
+                for (int a = 0; a < algorithms.length; a++) {
+                    MonteCarlo.Result estimate = result.estimate(a, 0);
+                    results.put(algorithms[a], Math.round(estimate.mean()));
+                    sb.append(String.format("%n%s ➝ ±%,.0f faults", algorithms[a], estimate.confidence95()));
+                }
+                if (frames * rate < 1) sb.append(String.format("%n%d frames scale to less than one sampled frame, so the estimates are biased; raise the percentage", frames));
+                note = sb.append("\nOptimal skipped: it needs the whole trace.").toString();
+                return results;
+            }
+
+            @Override
+            protected void done() {
+                analyseButton.setEnabled(true);
+                try {
+                    resultArea.setText("");
+                    showComparison(get(), note);
+                } catch (InterruptedException | ExecutionException ex) {
+                    if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                    JOptionPane.showMessageDialog(VirtualMemorySimulator.this, "Cannot analyse trace: "
+                        + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                }
+            }
+        }.execute();
+    }
+
+    /** Compares global and local replacement for a "pid:page" reference string under the selected algorithm. */
+    private void analyseProcesses(String text) {
+        ProcessTrace trace;
+        try {
+            trace = ProcessTrace.parse(text);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid page sequence: " + ex.getMessage());
+            return;
+        }
+        int frames = numFrames;
+        String algorithm = selectedAlgorithm;
+        analyseButton.setEnabled(false);
+        resultArea.setText("Simulating " + trace.processes() + " processes...");
+        new SwingWorker<Map<String, Long>, Void>() {
+            private String note = "";
+
+            @Override
+            protected Map<String, Long> doInBackground() {
+                Map<String, Long> faultResults = new LinkedHashMap<>();
+                StringBuilder sb = new StringBuilder();
+                for (MultiProcessSimulation.Scope scope : MultiProcessSimulation.Scope.values()) {
+                    for (MultiProcessSimulation.Allocator allocator : MultiProcessSimulation.Allocator.values()) {
+                        if (scope == MultiProcessSimulation.Scope.GLOBAL && allocator != MultiProcessSimulation.Allocator.EQUAL) continue;
+                        if (scope == MultiProcessSimulation.Scope.LOCAL && frames < trace.processes()) continue;
+                        MultiProcessSimulation simulation = new MultiProcessSimulation(trace, algorithm, frames, scope, allocator);
+                        // Typed strings are short: rebalance a few times over the run rather than never.
+                        simulation.setEpoch(Math.max(1, Math.min(MultiProcessSimulation.DEFAULT_EPOCH, trace.length() / 8)));
+                        simulation.setWorkingSetWindow(Math.max(1, Math.min(MultiProcessSimulation.DEFAULT_WINDOW, trace.length() / (4 * trace.processes()))));
+                        MultiProcessSimulation.Result result = simulation.run(ForkJoinPool.commonPool());
+                        faultResults.put(simulation.label(), result.totalFaults());
+                        sb.append("\n\n").append(simulation.label()).append(":");
+                        for (int p = 0; p < result.processes(); p++) {
+                            sb.append(String.format("%nPID %d ➝ %d faults, %d pages lost, %d frames at the end, working set %.1f",
+                                result.pid(p), result.faults(p), result.stolen(p), result.frames(p), result.meanWorkingSet(p)));
+                        }
+                        if (result.thrashingEpochs() > 0) {
+                            sb.append(String.format("%nThrashing in %d of %d epochs, from reference %d",
+                                result.thrashingEpochs(), result.epochs(), result.firstThrashing() + 1));
+                        }
+                    }
+                }
+                note = sb.toString();
+                return faultResults;
+            }
+
+            @Override
+            protected void done() {
+                analyseButton.setEnabled(true);
+                try {
+                    resultArea.setText("");
+                    showComparison(get(), note);
+                } catch (InterruptedException | ExecutionException ex) {
+                    if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                    JOptionPane.showMessageDialog(VirtualMemorySimulator.this, "Cannot simulate processes: "
+                        + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                }
+            }
+        }.execute();
+    }
+
+    /** Keeps the metrics of the latest analysis for export and exposes them over JMX. */
+    private void publishMetrics(RunMetrics metrics) {
+        try {
+            if (lastMetrics != null) lastMetrics.unregister();
+            metrics.register();
+        } catch (JMException ex) {
+            resultArea.setText("Metrics not published over JMX: " + ex.getMessage());
+        }
+        lastMetrics = metrics;
+        exportMetricsButton.setEnabled(true);
+    }
+
+    private String describeMetrics(RunMetrics metrics) {
+        StringBuilder sb = new StringBuilder("\n\nMisses by cause (cold / capacity / conflict):\n");
+        for (PolicyMetrics m : metrics.policies()) {
+            sb.append(m.getAlgorithm()).append(" ➝ ").append(m.getColdMisses()).append(" / ")
+                .append(m.getCapacityMisses()).append(" / ").append(m.getConflictMisses()).append("\n");
+        }
+        sb.append(String.format("%nSimulated %,d accesses at %,.0f accesses/s", metrics.getAccesses(), metrics.getAccessesPerSecond()));
+        if (metrics.getAllocatedBytes() >= 0) {
+            sb.append(String.format(", allocating %,.0f bytes/s", metrics.getAllocatedBytesPerSecond()));
+        }
+        return sb.toString();
+    }
+
+    private void showComparison(Map<String, Long> faultResults, String note) {
+        long minFaults = Collections.min(faultResults.values());
+        List<String> bestAlgos = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : faultResults.entrySet()) {
+            if (entry.getValue() == minFaults) bestAlgos.add(entry.getKey());
+        }
+
+        visualizationPanel.removeAll();
+        visualizationPanel.setLayout(new BorderLayout());
+
+        ChartPanel chart = new ChartPanel(faultResults);
+        visualizationPanel.add(chart, BorderLayout.CENTER);
+
+        JTextArea summary = new JTextArea();
+        summary.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        summary.setBackground(new Color(0xD8E6AD));
+        summary.setForeground(new Color(0x0F0E47));
+        summary.setEditable(false);
+        summary.setLineWrap(true);
+        summary.setWrapStyleWord(true);
+
+        StringBuilder result = new StringBuilder("Performance Summary:\n");
+        for (Map.Entry<String, Long> entry : faultResults.entrySet()) {
+            result.append(entry.getKey()).append(" ➝ ").append(entry.getValue()).append(" faults\n");
+        }
+
+        for (String mode : new String[] {"LRU", "LFU"}) {
+            Long exact = faultResults.get("LRU"), sampled = faultResults.get("Sampled " + mode);
+            if (exact == null || sampled == null || exact == 0) continue;
+            result.append(String.format("Sampled %s vs exact LRU ➝ %+d faults (%+.2f%%)%n",
+                mode, sampled - exact, 100.0 * (sampled - exact) / exact));
+        }
+
+        result.append("\nBest Performer")
+            .append(bestAlgos.size() > 1 ? "s" : "")
+            .append(": ").append(String.join(", ", bestAlgos))
+            .append(" 🎯")
+            .append(note);
+
+        summary.setText(result.toString());
+        summary.setBorder(BorderFactory.createTitledBorder("Comparison Summary"));
+        visualizationPanel.add(summary, BorderLayout.SOUTH);
+
+        visualizationPanel.revalidate();
+        visualizationPanel.repaint();
+    }
+
+    private void runSweep(Callable<int[]> loader, int minFrames, int maxFrames) {
+        sweepButton.setEnabled(false);
+        analyseButton.setEnabled(false);
+        cancelSweepButton.setEnabled(true);
+        sweepProgress.setValue(0);
+        sweepProgress.setMaximum(Policies.NAMES.length * (maxFrames - minFrames + 1));
+        sweepProgress.setVisible(true);
+        inputPanel.revalidate();
+        cancelActiveSweep = null;
+
+        sweepWorker = new SwingWorker<long[][], Integer>() {
+            @Override
+            protected long[][] doInBackground() throws Exception {
+                FaultSweep sweep = new FaultSweep(loader.call(), Policies.NAMES, minFrames, maxFrames);
+                cancelActiveSweep = sweep::cancel;
+                if (isCancelled()) sweep.cancel();
+                return sweep.run(ForkJoinPool.commonPool(), (done, total) -> publish(done));
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                sweepProgress.setValue(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                sweepButton.setEnabled(true);
+                analyseButton.setEnabled(true);
+                cancelSweepButton.setEnabled(false);
+                sweepProgress.setVisible(false);
+                Runnable cancel = cancelActiveSweep;
+                if (isCancelled()) {
+                    if (cancel != null) cancel.run();
+                    resultArea.setText("Sweep cancelled.");
+                    return;
+                }
+                try {
+                    showSweep(Policies.NAMES, minFrames, get(), "");
+                } catch (InterruptedException | ExecutionException | CancellationException ex) {
+                    resultArea.setText("Sweep failed: " + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                }
+            }
+        };
+        sweepWorker.execute();
+    }
+
+    /** Streams the trace once through sampled miniature simulations and shows the estimated curves. */
+    private void runSampledSweep(Callable<TraceSource> opener, int minFrames, int maxFrames, double rate) {
+        String[] algorithms = Arrays.stream(Policies.NAMES).filter(a -> !Policies.needsTrace(a)).toArray(String[]::new);
+        int[] frameCounts = new int[maxFrames - minFrames + 1];
+        for (int i = 0; i < frameCounts.length; i++) frameCounts[i] = minFrames + i;
+        SampledSweep sweep = new SampledSweep(algorithms, frameCounts, rate, SampledSweep.DEFAULT_SETS, RandomPolicy.DEFAULT_SEED);
+        String percent = sampleInput.getText().trim();
+        sweepButton.setEnabled(false);
+        analyseButton.setEnabled(false);
+        cancelSweepButton.setEnabled(true);
+        sweepProgress.setIndeterminate(true);
+        sweepProgress.setString("0 references");
+        sweepProgress.setVisible(true);
+        inputPanel.revalidate();
+
+        SwingWorker<long[][], Long> worker = new SwingWorker<long[][], Long>() {
+            private String note = "";
+
+            @Override
+            protected long[][] doInBackground() throws Exception {
+                SampledSweep.Result result;
+                try (TraceSource source = opener.call()) {
+                    result = sweep.run(source, ForkJoinPool.commonPool(), this::publish);
+                }
+                long[][] faults = new long[algorithms.length][sweep.columns()];
+                double widest = 0;
+                for (int a = 0; a < algorithms.length; a++) {
+                    for (int column = 0; column < sweep.columns(); column++) {
+                        MonteCarlo.Result estimate = result.estimate(a, column);
+                        faults[a][column] = Math.round(estimate.mean());
+                        widest = Math.max(widest, estimate.confidence95());
+                    }
+                }
+                note = String.format("Estimated from %s%% of the pages of %,d references in %d samples; widest 95%% interval ±%,.0f faults. Optimal skipped.%n",
+                    percent, result.references(), sweep.sets(), widest);
+                if (minFrames * rate < 1) {
+                    note += String.format("Below %d frames a cache scales to less than one sampled frame and the curves are biased.%n", (long) Math.ceil(1 / rate));
+                }
+                return faults;
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                sweepProgress.setString(String.format("%,d references", chunks.get(chunks.size() - 1)));
+            }
+
+            @Override
+            protected void done() {
+                sweepButton.setEnabled(true);
+                analyseButton.setEnabled(true);
+                cancelSweepButton.setEnabled(false);
+                sweepProgress.setVisible(false);
+                sweepProgress.setIndeterminate(false);
+                sweepProgress.setString(null);
+                if (isCancelled()) {
+                    sweep.cancel();
+                    resultArea.setText("Sweep cancelled.");
+                    return;
+                }
+                try {
+                    showSweep(algorithms, minFrames, get(), note);
+                } catch (InterruptedException | ExecutionException | CancellationException ex) {
+                    resultArea.setText("Sweep failed: " + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                }
+            }
+        };
+        sweepWorker = worker;
+        worker.execute();
+    }
+
+    private void showSweep(String[] algorithms, int minFrames, long[][] faults, String note) {
+        int maxFrames = minFrames + faults[0].length - 1;
+        visualizationPanel.removeAll();
+        visualizationPanel.setLayout(new BorderLayout());
+        visualizationPanel.add(new CurvePanel(algorithms, faults, minFrames), BorderLayout.CENTER);
+
+        JTextArea summary = new JTextArea();
+        summary.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        summary.setBackground(new Color(0xD8E6AD));
+        summary.setForeground(new Color(0x0F0E47));
+        summary.setEditable(false);
+        summary.setLineWrap(true);
+        summary.setWrapStyleWord(true);
+
+        StringBuilder result = new StringBuilder("Fault Curve Summary (frames " + minFrames + "-" + maxFrames + "):\n" + note);
+        for (int a = 0; a < algorithms.length; a++) {
+            long[] curve = faults[a];
+            long best = curve[curve.length - 1];
+            long spread = curve[0] - best;
+            int knee = curve.length - 1;
+            while (knee > 0 && curve[knee - 1] - best <= spread / 20) knee--;
+            result.append(algorithms[a]).append(" ➝ ").append(best).append(" faults at ")
+                .append(maxFrames).append(" frames, flattens at ")
+                .append(minFrames + knee).append(" frames\n");
+        }
+        summary.setText(result.toString());
+        summary.setBorder(BorderFactory.createTitledBorder("Sweep Summary"));
+        visualizationPanel.add(summary, BorderLayout.SOUTH);
+
+        visualizationPanel.revalidate();
+        visualizationPanel.repaint();
+    }
+
+    private void simulateAndVisualize() {
+        stepPolicy = Policies.create(selectedAlgorithm, numFrames, pageSequence);
+        stepLog = new StepLog(selectedAlgorithm, numFrames);
+        for (int page : pageSequence) stepLog.record(stepPolicy, page);
+        showTimeline(true);
+    }
+
+    private void showTimeline(boolean animate) {
+        if (animationTimer != null) animationTimer.stop();
+        visualizationPanel.removeAll();
+        visualizationPanel.setLayout(new BorderLayout());
+        resultArea.setText("");
+        explanationArea.setText("");
+
+        timeline = new TimelinePanel(stepLog);
+        timeline.addMouseListener(new MouseAdapter() {
+            @Override public void mouseClicked(MouseEvent e) {
+                int step = timeline.stepAt(e.getX());
+                if (step >= 0) explanationArea.setText(describeStep(step) + "\n");
+            }
+        });
+        JScrollPane scroll = new JScrollPane(timeline);
+        scroll.setPreferredSize(new Dimension(400, 300));
+        scroll.getViewport().setBackground(new Color(34, 40, 49));
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 4));
+        toolbar.setBackground(new Color(34, 40, 49));
+        JButton back = new JButton("◀"), play = new JButton(animate ? "Pause" : "Play"), forward = new JButton("▶");
+        JButton zoomOut = new JButton("−"), zoomIn = new JButton("+"), save = new JButton("Save Log...");
+        for (JButton b : new JButton[] {back, play, forward, zoomOut, zoomIn, save}) styleButton(b, new Color(0x4B8E8D));
+        back.addActionListener(e -> {
+            pauseAnimation(play);
+            moveToStep(currSeqIndex - 2);
+        });
+        forward.addActionListener(e -> {
+            pauseAnimation(play);
+            moveToStep(currSeqIndex);
+        });
+        play.addActionListener(e -> {
+            if (animationTimer.isRunning()) {
+                pauseAnimation(play);
+            } else {
+                if (currSeqIndex >= stepLog.steps()) moveToStep(-1);
+                play.setText("Pause");
+                animationTimer.start();
+            }
+        });
+        zoomOut.addActionListener(e -> timeline.zoom(-1, -1));
+        zoomIn.addActionListener(e -> timeline.zoom(1, -1));
+        save.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Save Step Log");
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                stepLog.save(chooser.getSelectedFile().toPath());
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot save step log: " + ex.getMessage());
+            }
+        });
+        JLabel jumpLabel = new JLabel("Go to step:");
+        jumpLabel.setForeground(new Color(0xF2EFE7));
+        JTextField jumpInput = createTextField();
+        jumpInput.setColumns(8);
+        jumpInput.addActionListener(e -> {
+            try {
+                int step = Integer.parseInt(jumpInput.getText().trim()) - 1;
+                if (step < 0 || step >= stepLog.steps()) throw new NumberFormatException();
+                pauseAnimation(play);
+                moveToStep(step);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Enter a step between 1 and " + stepLog.steps() + ".");
+            }
+        });
+        toolbar.add(back);
+        toolbar.add(play);
+        toolbar.add(forward);
+        toolbar.add(zoomOut);
+        toolbar.add(zoomIn);
+        toolbar.add(jumpLabel);
+        toolbar.add(jumpInput);
+        toolbar.add(save);
+
+        visualizationPanel.add(toolbar, BorderLayout.NORTH);
+        visualizationPanel.add(scroll, BorderLayout.CENTER);
+        visualizationPanel.revalidate();
+        visualizationPanel.repaint();
+
+        animationTimer = new Timer(800, e -> {
+            if (currSeqIndex >= stepLog.steps()) {
+                pauseAnimation(play);
+                showFinalSummary();
+                return;
+            }
+            explanationArea.append(describeStep(currSeqIndex) + "\n");
+            currSeqIndex++;
+            timeline.setPlayhead(currSeqIndex);
+            timeline.showStep(currSeqIndex - 1);
+        });
+        if (animate) {
+            currSeqIndex = 0;
+            animationTimer.start();
+        } else {
+            moveToStep(stepLog.steps() - 1);
+        }
+    }
+
+    private void pauseAnimation(JButton play) {
+        animationTimer.stop();
+        play.setText("Play");
+    }
+
+    /** Shows the run up to and including {@code step}; -1 rewinds to the start. */
+    private void moveToStep(int step) {
+        step = Math.max(-1, Math.min(step, stepLog.steps() - 1));
+        currSeqIndex = step + 1;
+        timeline.setPlayhead(currSeqIndex);
+        if (step >= 0) timeline.showStep(step);
+        explanationArea.setText(step >= 0 ? describeStep(step) + "\n" : "");
+    }
+
+    private String describeStep(int step) {
+        StringBuilder explanation = new StringBuilder("Step " + (step + 1) + ": Page " + stepLog.page(step));
+        if (stepLog.fault(step)) {
+            explanation.append(" MISS. Page Fault.");
+            if (stepLog.evicted(step)) {
+                explanation.append(" Page ").append(stepLog.victim(step))
+                    .append(" was replaced (using ").append(stepLog.algorithm().toUpperCase()).append(").");
+            }
+        } else {
+            explanation.append(" HIT. The page was already in memory.");
+        }
+        return explanation.toString();
+    }
+
+
+    private void showFinalSummary() {
+        StringBuilder sb = new StringBuilder();
+        int occupied = stepLog.seek(stepLog.steps() - 1);
+        for (int slot = 0; slot < occupied; slot++) sb.append(stepLog.frameAt(slot)).append(" ");
+        /*resultArea.setText(
+            "Page Faults: " + stepLog.faults() +
+            "\nTotal Pages: " + pageSequence.length +
+            "\nHit Ratio: " + String.format("%.2f", 1 - (double)stepLog.faults()/pageSequence.length) + "\uD83D\uDE00" +
+            "\nFinal Frames: " + sb.toString().trim()*/
+
+
+        String message = "<html>"
+        + "<body style='font-family:sans-serif;'>"
+        + "<h3 style='color:#DAA520;'><i>Page Replacement Result</i></h3>" // darkgoldenrod
+        + "<p style='color:#FF0000;'><b><i>Page Misses:</i></b> " + stepLog.faults() + "</p>" // red
+        + "<p style='color:#00CC00;'><b><i>Page Hits:</i></b> " + (stepLog.steps() - stepLog.faults()) + "</p>" // green
+        + "<p style='color:#FF8C00;'><b><i>Hit Ratio:</i></b> " + String.format("%.2f", 1 - (double)stepLog.faults()/stepLog.steps()) + "</p>" // teal
+        + "<p style='color:#5F9EA0;'><b><i>Final Page Sequence:</i></b><br>" + sb.toString().trim() + "</p>" // cadetblue
+        + "</body></html>";
+
+        JOptionPane.showMessageDialog(this, message, "Simulation Result", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private String getAlgorithmDescription(String algo) {
+        switch (algo) {
+            case "FIFO":
+                return "FIFO (First-In-First-Out): Replaces the oldest page in memory, the one that came in first.";
+            case "LRU":
+                return "LRU (Least Recently Used): Replaces the page that has not been used for the longest time.";
+            case "Sampled LRU":
+                return "Sampled LRU: Looks at a few randomly chosen frames and replaces the least recently used of them, like Redis. Close to LRU with far less bookkeeping.";
+            case "Sampled LFU":
+                return "Sampled LFU: Looks at a few randomly chosen frames and replaces the one with the lowest decaying, logarithmic use counter.";
+            case "MRU":
+                return "MRU (Most Recently Used): Replaces the page that was most recently used.";
+            case "Optimal":
+                return "Optimal: Replaces the page that will not be used for the longest period in the future.";
+            case "LIFO": 
+                return "LIFO (Last-In-First-Out) replaces the most recently loaded page.";
+            case "Random": 
+                return "Random replaces a randomly selected page from memory. Runs are seeded, so results repeat; Analyse also reports the spread over many seeds.";
+            case "CLOCK":
+                return "CLOCK (Second Chance): A hand sweeps the frames, clearing reference bits, and replaces the first page whose bit is already clear.";
+            case "Enhanced CLOCK":
+                return "Enhanced CLOCK (Enhanced Second Chance): Sweeps like CLOCK but prefers unreferenced clean pages, so dirty pages that need writing back are evicted last.";
+            case "NRU":
+                return "NRU (Not Recently Used): Sorts pages into four classes by their referenced and dirty bits and replaces a page from the lowest class.";
+            case "CLOCK-Pro":
+                return "CLOCK-Pro: Splits pages into hot and cold and keeps evicted cold pages on test, so pages re-used soon after eviction come back as hot.";
+            case "ARC":
+                return "ARC (Adaptive Replacement Cache): Balances recently-used and frequently-used pages, learning the split from recently evicted pages.";
+            case "2Q":
+                return "2Q: New pages wait in a small FIFO queue; only pages referenced again after leaving it enter the main LRU list, so scans do not flush it.";
+            case "LIRS":
+                return "LIRS (Low Inter-reference Recency Set): Keeps pages re-used at short intervals and replaces from a small set of pages with long re-use distance.";
+            default:
+                return "";
+        }
+    }
+
+    private JLabel createLabel(String t) {
+        JLabel l = new JLabel(t);
+        l.setForeground(Color.WHITE);
+        l.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+        return l;
+    }
+
+    private JTextField createTextField() {
+        JTextField tf = new JTextField();
+        tf.setMaximumSize(new Dimension(200, 30));
+        tf.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        tf.setBackground(new Color(0x9ACBD0));
+        tf.setForeground(new Color(0x0F0E47));
+        tf.setBorder(BorderFactory.createLineBorder(new Color(99, 110, 114)));
+        return tf;
+    }
+
+    private void styleButton(JButton btn, Color bg) {
+        btn.setBackground(bg);
+        btn.setForeground(Color.WHITE);
+        btn.setFocusPainted(false);
+        btn.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        btn.setMaximumSize(new Dimension(200, 35));
+    }
+
+    class ChartPanel extends JPanel {
+        private final Map<String, Long> data;
+        private final long maxFaults;
+        public ChartPanel(Map<String, Long> data) {
+            this.data = data;
+            this.maxFaults = Collections.max(data.values());
+            setPreferredSize(new Dimension(800, 400));
+            setBackground(new Color(34, 40, 49));
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int barWidth = getWidth() / data.size();
+            int x = 30;
+
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setFont(new Font("Segoe UI", Font.BOLD, 13));
+            int index = 0;
+
+            for (Map.Entry<String, Long> entry : data.entrySet()) {
+                int barHeight = (int) ((double) entry.getValue() / maxFaults * 250);
+                g2.setColor(PALETTE[index % PALETTE.length]);
+                g2.fillRoundRect(x, getHeight() - barHeight - 50, barWidth - 40, barHeight, 10, 10);
+
+                g2.setColor(Color.WHITE);
+                g2.drawString(entry.getKey(), x + 5, getHeight() - 25);
+                g2.drawString(entry.getValue() + " faults", x + 5, getHeight() - barHeight - 60);
+
+                x += barWidth;
+                index++;
+            }
+        }
+    }
+
+
+    class CurvePanel extends JPanel {
+        private final String[] names;
+        private final long[][] curves;
+        private final int minFrames;
+        private final long maxFaults;
+
+        public CurvePanel(String[] names, long[][] curves, int minFrames) {
+            this.names = names;
+            this.curves = curves;
+            this.minFrames = minFrames;
+            long max = 1;
+            for (long[] curve : curves) for (long v : curve) max = Math.max(max, v);
+            this.maxFaults = max;
+            setPreferredSize(new Dimension(800, 400));
+            setBackground(new Color(34, 40, 49));
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setFont(new Font("Segoe UI", Font.BOLD, 13));
+
+            int left = 60, right = 150, top = 20, bottom = 40;
+            int w = getWidth() - left - right, h = getHeight() - top - bottom;
+            if (w <= 0 || h <= 0) return;
+            int points = curves[0].length;
+
+            g2.setColor(new Color(99, 110, 114));
+            g2.drawLine(left, top + h, left + w, top + h);
+            g2.drawLine(left, top, left, top + h);
+            g2.setColor(Color.WHITE);
+            g2.drawString(String.valueOf(maxFaults), 5, top + 10);
+            g2.drawString(String.valueOf(minFrames), left, top + h + 18);
+            String last = String.valueOf(minFrames + points - 1) + " frames";
+            g2.drawString(last, left + w - g2.getFontMetrics().stringWidth(last), top + h + 18);
+
+            for (int a = 0; a < curves.length; a++) {
+                g2.setColor(PALETTE[a % PALETTE.length]);
+                g2.setStroke(new BasicStroke(2f));
+                // One vertex per horizontal pixel at most, however long the sweep.
+                int prevX = -1, prevY = -1;
+                int stride = Math.max(1, points / Math.max(1, w));
+                for (int i = 0; i < points; i += stride) {
+                    int x = left + (points == 1 ? 0 : (int) ((long) i * w / (points - 1)));
+                    int y = top + h - (int) (curves[a][i] * h / maxFaults);
+                    if (prevX >= 0) g2.drawLine(prevX, prevY, x, y);
+                    prevX = x;
+                    prevY = y;
+                }
+                g2.fillRect(left + w + 15, top + 10 + a * 20, 12, 12);
+                g2.setColor(Color.WHITE);
+                g2.drawString(names[a], left + w + 32, top + 21 + a * 20);
+            }
+        }
+    }
+
+
+    /**
+     * Custom-painted step timeline: one column per step, one row per frame.
+     * Only the cells inside the clip are painted, reading the frame table from
+     * the step log, so the cost of a repaint depends on the window size and
+     * not on the length of the trace.
+     */
+    static class TimelinePanel extends JComponent implements Scrollable {
+        private final int[] zooms = {2, 4, 8, 16, 32, 64, 120};
+        private static final int HEADER = 44, ROW = 26;
+        private final StepLog log;
+        private int zoom = zooms.length - 1;
+        private int playhead;
+
+        public TimelinePanel(StepLog log) {
+            this.log = log;
+            setOpaque(true);
+            setBackground(new Color(34, 40, 49));
+            addMouseWheelListener(e -> {
+                if (e.isControlDown()) {
+                    zoom(-e.getWheelRotation(), e.getX());
+                } else {
+                    // A wheel listener here stops the scroll pane seeing plain wheel events, so pass them on.
+                    Container scroll = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+                    if (scroll != null) scroll.dispatchEvent(SwingUtilities.convertMouseEvent(this, e, scroll));
+                }
+            });
+        }
+
+        private int column() { return zooms[zoom]; }
+
+        public void setPlayhead(int steps) {
+            int previous = playhead;
+            playhead = steps;
+            if (steps == previous + 1) {
+                repaint(previous * column(), 0, column(), getHeight());
+            } else {
+                repaint();
+            }
+        }
+
+        /** Returns the revealed step under x, or -1. */
+        public int stepAt(int x) {
+            int step = x / column();
+            return step < playhead ? step : -1;
+        }
+
+        public void showStep(int step) {
+            Rectangle visible = getVisibleRect();
+            scrollRectToVisible(new Rectangle(step * column(), visible.y, column(), 1));
+        }
+
+        /** Changes the column width by {@code delta} levels, keeping the step under x (or the centre) in place. */
+        public void zoom(int delta, int x) {
+            int next = Math.max(0, Math.min(zooms.length - 1, zoom + delta));
+            if (next == zoom) return;
+            Rectangle visible = getVisibleRect();
+            if (x < 0) x = visible.x + visible.width / 2;
+            int offset = x - visible.x;
+            int step = x / column();
+            zoom = next;
+            revalidate();
+            if (getParent() instanceof JViewport) {
+                JViewport viewport = (JViewport) getParent();
+                viewport.setViewSize(getPreferredSize());
+                viewport.setViewPosition(new Point(Math.max(0, step * column() - offset), visible.y));
+            }
+            repaint();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            long width = (long) log.steps() * column();
+            return new Dimension((int) Math.min(width, Integer.MAX_VALUE / 2), HEADER + log.frames() * ROW + 10);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            Rectangle clip = g2.getClipBounds();
+            g2.setColor(getBackground());
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int col = column();
+            boolean labels = col >= 32;
+            int first = Math.max(0, clip.x / col);
+            int last = Math.min(playhead - 1, (clip.x + clip.width) / col);
+            int firstRow = Math.max(0, (clip.y - HEADER) / ROW);
+            int lastRow = Math.min(log.frames() - 1, (clip.y + clip.height - HEADER) / ROW);
+            Font pageFont = new Font("Consolas", Font.BOLD, 14), headerFont = new Font("Segoe UI", Font.BOLD, 12);
+            Color miss = new Color(255, 99, 132), hit = new Color(46, 204, 113);
+
+            for (int step = first; step <= last; step++) {
+                int x = step * col;
+                boolean fault = log.fault(step);
+                int current = log.slot(step);
+                int occupied = log.seek(step);
+                g2.setColor(fault ? new Color(255, 99, 132, 50) : new Color(46, 204, 113, 50));
+                g2.fillRect(x, 0, col - 1, getHeight());
+                if (labels) {
+                    g2.setFont(headerFont);
+                    g2.setColor(Color.WHITE);
+                    g2.drawString("#" + (step + 1), x + 4, 16);
+                    g2.setColor(fault ? miss : hit);
+                    g2.drawString(fault ? "MISS" : "HIT", x + 4, 34);
+                } else {
+                    g2.setColor(fault ? miss : hit);
+                    g2.fillRect(x, 8, col - 1, HEADER - 16);
+                }
+                g2.setFont(pageFont);
+                for (int row = firstRow; row <= lastRow; row++) {
+                    int y = HEADER + row * ROW;
+                    if (row >= occupied) {
+                        if (labels) {
+                            g2.setColor(new Color(99, 110, 114));
+                            g2.drawString("-", x + col / 2 - 4, y + 18);
+                        }
+                        continue;
+                    }
+                    g2.setColor(row == current ? (fault ? miss : hit) : new Color(78, 81, 84));
+                    g2.fillRect(x + 1, y + 1, col - 3, ROW - 3);
+                    if (labels) {
+                        g2.setColor(Color.WHITE);
+                        g2.drawString(String.valueOf(log.frameAt(row)), x + 6, y + 18);
+                    }
+                }
+            }
+        }
+
+        @Override public Dimension getPreferredScrollableViewportSize() { return getPreferredSize(); }
+        @Override public boolean getScrollableTracksViewportWidth() { return false; }
+        @Override public boolean getScrollableTracksViewportHeight() { return false; }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+            return orientation == SwingConstants.HORIZONTAL ? Math.max(column(), 16) : ROW;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+            return orientation == SwingConstants.HORIZONTAL ? visible.width : visible.height;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new VirtualMemorySimulator().setVisible(true));
+    }
+}
\ No newline at end of file
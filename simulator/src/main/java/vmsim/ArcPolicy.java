@@ -0,0 +1,132 @@
+package vmsim;
+
+/**
+ * ARC (Megiddo and Modha): resident pages are split between T1 (seen once
+ * recently) and T2 (seen at least twice), each backed by a ghost list of
+ * recently evicted pages (B1, B2). A ghost hit shifts the target size p of
+ * T1 towards whichever side would have kept the page.
+ */
+public class ArcPolicy extends FramePolicy {
+    private final SlotList t1, t2;
+    private final boolean[] inT2;
+    private final GhostList b1, b2;
+    private int target;
+    private boolean fromB2, frequent, forget;
+
+    public ArcPolicy(int capacity) {
+        super(capacity);
+        t1 = new SlotList(capacity);
+        t2 = new SlotList(capacity);
+        inT2 = new boolean[capacity];
+        b1 = new GhostList(capacity);
+        b2 = new GhostList(capacity);
+    }
+
+    @Override public String name() { return "ARC"; }
+
+    @Override
+    public boolean access(int page) {
+        if (slotOf(page) >= 0) return super.access(page);
+        miss(page, true);
+        boolean fault = super.access(page);
+        // The flags only describe this miss; an eviction from setLimit must not see them.
+        fromB2 = forget = false;
+        return fault;
+    }
+
+    /** Loading ahead is not a reference: the page enters T1 and a ghost of it is dropped without adapting the target. */
+    @Override
+    public boolean prefetch(int page) {
+        if (slotOf(page) >= 0) return super.prefetch(page);
+        miss(page, false);
+        boolean loaded = super.prefetch(page);
+        fromB2 = forget = false;
+        return loaded;
+    }
+
+    private void miss(int page, boolean reference) {
+        fromB2 = false;
+        forget = false;
+        frequent = false;
+        boolean inB1 = b1.remove(page), inB2 = !inB1 && b2.remove(page);
+        if (reference && inB1) {
+            target = Math.min(limit(), target + Math.max(b2.size() / (b1.size() + 1), 1));
+            frequent = true;
+        } else if (reference && inB2) {
+            target = Math.max(0, target - Math.max(b1.size() / (b2.size() + 1), 1));
+            fromB2 = true;
+            frequent = true;
+        } else {
+            // Sized to the current limit; after setLimit lowers it the lists may be over by more than one.
+            int c = limit();
+            if (t1.size() + b1.size() >= c) {
+                if (t1.size() < c) {
+                    while (t1.size() + b1.size() >= c) b1.removeFirst();
+                } else {
+                    forget = true;
+                }
+            } else {
+                while (t1.size() + b1.size() + t2.size() + b2.size() >= 2 * c) b2.removeFirst();
+            }
+        }
+    }
+
+    @Override
+    protected void onHit(int slot) {
+        if (inT2[slot]) {
+            t2.moveToLast(slot);
+        } else {
+            t1.remove(slot);
+            t2.addLast(slot);
+            inT2[slot] = true;
+        }
+    }
+
+    @Override
+    protected void onInsert(int slot) {
+        inT2[slot] = frequent;
+        if (frequent) t2.addLast(slot); else t1.addLast(slot);
+    }
+
+    @Override
+    protected void onEvict(int slot) {
+        if (inT2[slot]) {
+            t2.remove(slot);
+            if (b2.size() == capacity) b2.removeFirst();
+            b2.addLast(pages[slot]);
+        } else {
+            t1.remove(slot);
+            if (forget) return;
+            if (b1.size() == capacity) b1.removeFirst();
+            b1.addLast(pages[slot]);
+        }
+    }
+
+    @Override
+    protected int selectVictim() {
+        if (forget) return t1.first();
+        int t1Size = t1.size();
+        if (t1Size > 0 && (t1Size > target || (fromB2 && t1Size == target) || t2.size() == 0)) return t1.first();
+        return t2.first();
+    }
+
+    /** The target size p of T1. */
+    int target() { return target; }
+
+    @Override
+    public int setLimit(int limit) {
+        int evicted = super.setLimit(limit);
+        target = Math.min(target, limit);
+        return evicted;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        t1.clear();
+        t2.clear();
+        b1.clear();
+        b2.clear();
+        target = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package vmsim;
+
+/**
+ * CLOCK (second chance): a hand sweeps the frames in order, clearing reference
+ * bits, and evicts the first page whose bit is already clear.
+ */
+public class ClockPolicy extends FramePolicy {
+    private final boolean[] referenced;
+    private int hand;
+
+    public ClockPolicy(int capacity) {
+        super(capacity);
+        referenced = new boolean[capacity];
+    }
+
+    @Override public String name() { return "CLOCK"; }
+    @Override protected void onHit(int slot) { referenced[slot] = true; }
+    @Override protected void onInsert(int slot) { referenced[slot] = true; }
+    @Override protected void onPrefetch(int slot) { referenced[slot] = false; }
+    @Override protected void onEvict(int slot) { }
+
+    @Override
+    protected int selectVictim() {
+        while (referenced[hand] || !occupied(hand)) {
+            referenced[hand] = false;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+        }
+        int victim = hand;
+        hand = hand + 1 == capacity ? 0 : hand + 1;
+        return victim;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        hand = 0;
+    }
+}
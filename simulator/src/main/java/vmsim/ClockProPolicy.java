@@ -0,0 +1,210 @@
+package vmsim;
+
+/**
+ * CLOCK-Pro (Jiang, Chen and Zhang): hot and cold resident pages share one
+ * clock with non-resident cold pages that are still in their test period.
+ * HAND-cold evicts unreferenced cold pages (leaving a test entry behind) and
+ * promotes referenced ones, HAND-hot demotes unreferenced hot pages, and
+ * HAND-test expires test entries. A hit on a test entry grows the cold
+ * target, an expiry shrinks it. Follows the widely used simplified form in
+ * which every evicted cold page gets a test period and any referenced cold
+ * page is promoted when HAND-cold passes it.
+ */
+public class ClockProPolicy extends FramePolicy {
+    private static final byte HOT = 0, COLD = 1, TEST = 2;
+    private static final int NIL = -1;
+
+    // Entries 0..capacity-1 are the frame slots; the rest are test entries.
+    private final int[] prev, next;
+    private final byte[] type;
+    private final boolean[] referenced;
+    private final int[] testPage;
+    private final IntIntMap testIndex;
+    private final int[] free;
+    private int freeCount;
+    private int handHot = NIL, handCold = NIL, handTest = NIL;
+    private int hotCount, coldCount, testCount;
+    private int coldTarget;
+    private boolean insertHot;
+
+    public ClockProPolicy(int capacity) {
+        super(capacity);
+        // One spare test entry: a new one is created before the oldest expires.
+        int entries = 2 * capacity + 1;
+        prev = new int[entries];
+        next = new int[entries];
+        type = new byte[entries];
+        referenced = new boolean[capacity];
+        testPage = new int[entries];
+        testIndex = new IntIntMap(capacity + 1);
+        free = new int[capacity + 1];
+        resetClock();
+    }
+
+    @Override public String name() { return "CLOCK-Pro"; }
+
+    @Override
+    public boolean access(int page) {
+        insertHot = false;
+        if (slotOf(page) < 0) {
+            int t = testIndex.get(page);
+            if (t >= 0) {
+                coldTarget = Math.min(limit(), coldTarget + 1);
+                deleteTest(t);
+                insertHot = true;
+            }
+        }
+        return super.access(page);
+    }
+
+    /** A prefetched page enters cold; its test entry, if any, ends without growing the cold target. */
+    @Override
+    public boolean prefetch(int page) {
+        insertHot = false;
+        if (slotOf(page) < 0) {
+            int t = testIndex.get(page);
+            if (t >= 0) deleteTest(t);
+        }
+        return super.prefetch(page);
+    }
+
+    @Override protected void onHit(int slot) { referenced[slot] = true; }
+
+    @Override
+    protected void onInsert(int slot) {
+        type[slot] = insertHot ? HOT : COLD;
+        referenced[slot] = false;
+        if (insertHot) hotCount++; else coldCount++;
+        link(slot);
+    }
+
+    @Override protected void onEvict(int slot) { }
+
+    @Override
+    protected int selectVictim() {
+        int victim = -1;
+        while (victim < 0) {
+            int e = handCold;
+            if (type[e] == COLD) {
+                if (referenced[e]) {
+                    type[e] = HOT;
+                    referenced[e] = false;
+                    coldCount--;
+                    hotCount++;
+                } else {
+                    victim = e;
+                    e = toTest(e);
+                    coldCount--;
+                    testCount++;
+                }
+            }
+            handCold = next[e];
+            while (hotCount > Math.max(0, limit() - coldTarget)) runHandHot();
+        }
+        while (testCount > limit()) runHandTest();
+        return victim;
+    }
+
+    /** Demotes unreferenced hot pages; test periods of entries it passes end. */
+    private void runHandHot() {
+        int e = handHot;
+        handHot = next[e];
+        if (type[e] == HOT) {
+            if (referenced[e]) {
+                referenced[e] = false;
+            } else {
+                type[e] = COLD;
+                hotCount--;
+                coldCount++;
+            }
+        } else if (type[e] == TEST) {
+            expire(e);
+        }
+    }
+
+    /** Drops the next test entry once there are more than one per frame. */
+    private void runHandTest() {
+        while (type[handTest] != TEST) handTest = next[handTest];
+        expire(handTest);
+    }
+
+    private void expire(int t) {
+        deleteTest(t);
+        if (coldTarget > 1) coldTarget--;
+    }
+
+    /** Swaps an evicted cold slot for a test entry at the same clock position. */
+    private int toTest(int slot) {
+        int t = free[--freeCount];
+        int p = prev[slot], n = next[slot];
+        if (p == slot) {
+            prev[t] = next[t] = t;
+        } else {
+            prev[t] = p;
+            next[t] = n;
+            next[p] = t;
+            prev[n] = t;
+        }
+        if (handHot == slot) handHot = t;
+        if (handCold == slot) handCold = t;
+        if (handTest == slot) handTest = t;
+        type[t] = TEST;
+        testPage[t] = pages[slot];
+        testIndex.put(pages[slot], t);
+        return t;
+    }
+
+    private void deleteTest(int t) {
+        testIndex.remove(testPage[t]);
+        testCount--;
+        int p = prev[t], n = next[t];
+        if (p == t) {
+            handHot = handCold = handTest = NIL;
+        } else {
+            if (handHot == t) handHot = p;
+            if (handCold == t) handCold = p;
+            if (handTest == t) handTest = p;
+            next[p] = n;
+            prev[n] = p;
+        }
+        free[freeCount++] = t;
+    }
+
+    /** Inserts an entry just behind HAND-hot, i.e. at the head of the clock. */
+    private void link(int e) {
+        if (handHot == NIL) {
+            prev[e] = next[e] = e;
+            handHot = handCold = handTest = e;
+            return;
+        }
+        int p = prev[handHot];
+        prev[e] = p;
+        next[e] = handHot;
+        next[p] = e;
+        prev[handHot] = e;
+        if (handCold == handHot) handCold = e;
+    }
+
+    private void resetClock() {
+        testIndex.clear();
+        handHot = handCold = handTest = NIL;
+        hotCount = coldCount = testCount = 0;
+        coldTarget = capacity;
+        freeCount = free.length;
+        for (int i = 0; i < free.length; i++) free[i] = 2 * capacity - i;
+    }
+
+    @Override
+    public int setLimit(int limit) {
+        int evicted = super.setLimit(limit);
+        coldTarget = Math.min(coldTarget, limit);
+        while (testCount > limit) runHandTest();
+        return evicted;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetClock();
+    }
+}
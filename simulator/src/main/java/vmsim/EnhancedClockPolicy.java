@@ -0,0 +1,83 @@
+package vmsim;
+
+/**
+ * Enhanced second chance: CLOCK over (referenced, dirty) pairs with a single
+ * hand making up to four rounds. Odd rounds look for an unreferenced clean
+ * page and change nothing; even rounds take an unreferenced dirty page and
+ * clear reference bits as they pass. A clean page is thus evicted before a
+ * dirty one of the same recency and eviction causes fewer write-backs. The
+ * unreferenced clean pages are counted, so an odd round that cannot succeed
+ * is skipped instead of sweeping every frame.
+ */
+public class EnhancedClockPolicy extends FramePolicy {
+    private final boolean[] referenced;
+    private int hand;
+    private int idleClean;
+
+    public EnhancedClockPolicy(int capacity) {
+        super(capacity);
+        referenced = new boolean[capacity];
+    }
+
+    @Override public String name() { return "Enhanced CLOCK"; }
+
+    @Override
+    protected void onHit(int slot) {
+        if (!referenced[slot] && !dirty(slot)) idleClean--;
+        referenced[slot] = true;
+    }
+
+    @Override protected void onInsert(int slot) { referenced[slot] = true; }
+
+    @Override
+    protected void onPrefetch(int slot) {
+        referenced[slot] = false;
+        idleClean++;
+    }
+
+    @Override
+    protected void onEvict(int slot) {
+        if (!referenced[slot] && !dirty(slot)) idleClean--;
+    }
+
+    @Override
+    protected void onDirty(int slot) {
+        if (!referenced[slot]) idleClean--;
+    }
+
+    @Override
+    protected void onClean(int slot) {
+        if (!referenced[slot]) idleClean++;
+    }
+
+    @Override
+    protected int selectVictim() {
+        for (int round = 1; ; round++) {
+            boolean dirtyRound = round % 2 == 0;
+            if (!dirtyRound && idleClean == 0) continue;
+            for (int i = 0; i < capacity; i++) {
+                int s = advance();
+                if (!occupied(s)) continue;
+                if (!referenced[s]) {
+                    if (dirty(s) == dirtyRound) return s;
+                } else if (dirtyRound) {
+                    referenced[s] = false;
+                    if (!dirty(s)) idleClean++;
+                }
+            }
+        }
+    }
+
+    private int advance() {
+        int s = hand;
+        hand = hand + 1 == capacity ? 0 : hand + 1;
+        return s;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        hand = 0;
+        idleClean = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package vmsim;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fault counts for every (algorithm, frame count) pair over one trace. Each
+ * cell is an independent simulation, so the cells are spread over a
+ * fork-join pool; progress is reported per finished cell and a sweep can be
+ * cancelled from any thread. Over wide frame ranges the stack algorithms get
+ * their whole row from a single {@link MissCurve} pass instead of one
+ * simulation per frame count; narrow ranges are cheaper simulated per size.
+ */
+public final class FaultSweep {
+    private static final int CANCEL_CHECK_MASK = (1 << 16) - 1;
+    /** Fewest columns for which a one-pass curve beats simulating each size. */
+    private static final int CURVE_MIN_COLUMNS = 4;
+    /** OPT's curve pass slows with its depth, so it also needs a column per this many frames. */
+    private static final int OPTIMAL_FRAMES_PER_COLUMN = 128;
+
+    public interface Listener {
+        /** Called from worker threads whenever a cell finishes. */
+        void progress(int done, int total);
+    }
+
+    private final int[] trace;
+    private final String[] algorithms;
+    private final int minFrames, maxFrames;
+    private final AtomicInteger done = new AtomicInteger();
+    private long seed = RandomPolicy.DEFAULT_SEED;
+    private volatile boolean cancelled;
+
+    public FaultSweep(int[] trace, String[] algorithms, int minFrames, int maxFrames) {
+        if (minFrames < 1 || maxFrames < minFrames) {
+            throw new IllegalArgumentException("Invalid frame range: " + minFrames + "-" + maxFrames);
+        }
+        this.trace = trace;
+        this.algorithms = algorithms.clone();
+        this.minFrames = minFrames;
+        this.maxFrames = maxFrames;
+    }
+
+    public String[] algorithms() { return algorithms.clone(); }
+    public int minFrames() { return minFrames; }
+    public int maxFrames() { return maxFrames; }
+    public int columns() { return maxFrames - minFrames + 1; }
+    public int frames(int column) { return minFrames + column; }
+
+    /** Seeds the randomized algorithms; every frame count gets the same seed. */
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public void cancel() { cancelled = true; }
+    public boolean isCancelled() { return cancelled; }
+
+    /**
+     * Runs every cell on the pool and blocks until they finish. Returns
+     * faults[algorithm][column]; throws CancellationException if cancelled.
+     */
+    public long[][] run(ForkJoinPool pool, Listener listener) {
+        long[][] faults = new long[algorithms.length][columns()];
+        int units = 0;
+        for (String algorithm : algorithms) units += curve(algorithm) ? 1 : columns();
+        int[] rows = new int[units], cols = new int[units];
+        int unit = 0;
+        for (int row = 0; row < algorithms.length; row++) {
+            if (curve(algorithms[row])) {
+                rows[unit] = row;
+                cols[unit++] = -1;
+                continue;
+            }
+            for (int column = 0; column < columns(); column++) {
+                rows[unit] = row;
+                cols[unit++] = column;
+            }
+        }
+        done.set(0);
+        pool.invoke(new Cells(faults, listener, rows, cols, 0, units));
+        if (cancelled) throw new CancellationException("Sweep cancelled");
+        return faults;
+    }
+
+    /** Whether the algorithm's row is cheaper as one {@link MissCurve} pass than as a simulation per column. */
+    boolean curve(String algorithm) {
+        if (!MissCurve.supports(algorithm) || columns() < CURVE_MIN_COLUMNS) return false;
+        return !algorithm.equals("Optimal") || (long) columns() * OPTIMAL_FRAMES_PER_COLUMN >= maxFrames;
+    }
+
+    private long simulate(ReplacementPolicy policy) {
+        long faults = 0;
+        for (int i = 0; i < trace.length; i++) {
+            if ((i & CANCEL_CHECK_MASK) == 0 && cancelled) return -1;
+            if (policy.access(trace[i])) faults++;
+        }
+        return faults;
+    }
+
+    private final class Cells extends RecursiveAction {
+        private final long[][] faults;
+        private final Listener listener;
+        private final int[] rows, cols;
+        private final int from, to;
+
+        /** Work unit i is one cell, or a whole row when cols[i] is -1. */
+        Cells(long[][] faults, Listener listener, int[] rows, int[] cols, int from, int to) {
+            this.faults = faults;
+            this.listener = listener;
+            this.rows = rows;
+            this.cols = cols;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled) return;
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Cells(faults, listener, rows, cols, from, mid),
+                    new Cells(faults, listener, rows, cols, mid, to));
+                return;
+            }
+            int row = rows[from], column = cols[from];
+            int finished;
+            if (column < 0) {
+                faults[row] = MissCurve.of(algorithms[row], trace, maxFrames, () -> cancelled).faults(minFrames, maxFrames);
+                finished = done.addAndGet(columns());
+            } else {
+                faults[row][column] = simulate(Policies.create(algorithms[row], frames(column), trace, seed));
+                finished = done.incrementAndGet();
+            }
+            if (listener != null && !cancelled) listener.progress(finished, algorithms.length * columns());
+        }
+    }
+}
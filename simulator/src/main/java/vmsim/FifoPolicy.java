@@ -0,0 +1,23 @@
+package vmsim;
+
+/** FIFO: evicts the page that was loaded first. */
+public class FifoPolicy extends FramePolicy {
+    private final SlotList queue;
+
+    public FifoPolicy(int capacity) {
+        super(capacity);
+        queue = new SlotList(capacity);
+    }
+
+    @Override public String name() { return "FIFO"; }
+    @Override protected void onHit(int slot) { }
+    @Override protected void onInsert(int slot) { queue.addLast(slot); }
+    @Override protected void onEvict(int slot) { queue.remove(slot); }
+    @Override protected int selectVictim() { return queue.first(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        queue.clear();
+    }
+}
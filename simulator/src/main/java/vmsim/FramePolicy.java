@@ -0,0 +1,215 @@
+package vmsim;
+
+import java.util.Arrays;
+
+/**
+ * Frame table shared by the slot based policies: an int[] of resident pages
+ * and a primitive page to slot index sized up front, so the access path never
+ * boxes or allocates. Subclasses only keep their ordering state per slot and
+ * pick the slot to evict when the table is full.
+ *
+ * <p>The usable frames can be lowered below the capacity with
+ * {@link #setLimit}, which evicts down to the new limit. The slots it frees
+ * are reused first, so until a limit is lowered slots 0..size-1 are exactly
+ * the occupied ones; afterwards {@link #occupied} tells the holes apart.
+ *
+ * <p>Every frame also has a dirty bit: {@link #write} accesses a page and
+ * marks it modified, the bit goes with the page when it is evicted (see
+ * {@link #victimDirty()}), and {@link #clean} models a write-back that leaves
+ * the page resident.
+ */
+public abstract class FramePolicy implements ReplacementPolicy {
+    protected final int capacity;
+    protected final int[] pages;
+    private final IntIntMap index;
+    private final boolean[] dirty;
+    private int dirtyCount;
+    private long droppedDirty;
+    private int size;
+    private int limit;
+    private int used;
+    private int[] free;
+    private int freeCount;
+    private boolean evicted, victimDirty;
+    private int victim;
+
+    protected FramePolicy(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.pages = new int[capacity];
+        this.index = new IntIntMap(capacity);
+        this.dirty = new boolean[capacity];
+        this.limit = capacity;
+    }
+
+    @Override
+    public boolean access(int page) {
+        evicted = victimDirty = false;
+        int slot = index.get(page);
+        if (slot >= 0) {
+            onHit(slot);
+            return false;
+        }
+        onInsert(load(page));
+        return true;
+    }
+
+    /**
+     * Loads a page ahead of its first reference, as read-ahead does, evicting
+     * like a fault would. Nothing happens when the page is already resident;
+     * returns whether it was loaded. Throws UnsupportedOperationException when
+     * {@link #supportsPrefetch} is false.
+     */
+    public boolean prefetch(int page) {
+        evicted = victimDirty = false;
+        if (index.get(page) >= 0) return false;
+        onPrefetch(load(page));
+        return true;
+    }
+
+    /** Whether {@link #prefetch} can place pages ahead of their first reference. */
+    public boolean supportsPrefetch() {
+        return true;
+    }
+
+    private int load(int page) {
+        int s;
+        if (size < limit) {
+            s = freeCount > 0 ? free[--freeCount] : used++;
+            size++;
+        } else {
+            s = selectVictim();
+            victim = pages[s];
+            evicted = true;
+            victimDirty = dirty[s];
+            index.remove(victim);
+            onEvict(s);
+            discard(s);
+        }
+        pages[s] = page;
+        index.put(page, s);
+        return s;
+    }
+
+    protected abstract void onHit(int slot);
+
+    protected abstract void onInsert(int slot);
+
+    protected abstract void onEvict(int slot);
+
+    /** Called for a page loaded by {@link #prefetch}; by default it is placed like a demand-loaded page. */
+    protected void onPrefetch(int slot) { onInsert(slot); }
+
+    /** Called when a resident page's frame turns dirty; dirty-aware policies override it. */
+    protected void onDirty(int slot) { }
+
+    /** Called when a dirty frame is written back without leaving memory. */
+    protected void onClean(int slot) { }
+
+    /** Returns an occupied slot to evict; only called when the table holds {@link #limit()} pages. */
+    protected abstract int selectVictim();
+
+    /**
+     * Sets how many frames may hold pages, between 1 and the capacity, and
+     * evicts with the policy's own choice of victims until the table fits.
+     * Returns the number of pages evicted; the dirty ones among them are
+     * added to {@link #droppedDirty()}.
+     */
+    public int setLimit(int limit) {
+        if (limit < 1 || limit > capacity) throw new IllegalArgumentException("limit must be in 1.." + capacity + ": " + limit);
+        this.limit = limit;
+        int count = 0;
+        while (size > limit) {
+            int s = selectVictim();
+            index.remove(pages[s]);
+            onEvict(s);
+            if (dirty[s]) droppedDirty++;
+            discard(s);
+            if (free == null) free = new int[capacity];
+            free[freeCount++] = s;
+            size--;
+            count++;
+        }
+        return count;
+    }
+
+    public int limit() { return limit; }
+
+    /** Accesses the page for a store, marking its frame dirty; returns true on a fault. */
+    public boolean write(int page) {
+        boolean fault = access(page);
+        int slot = index.get(page);
+        if (!dirty[slot]) {
+            dirty[slot] = true;
+            dirtyCount++;
+            onDirty(slot);
+        }
+        return fault;
+    }
+
+    /** Clears the page's dirty bit, as after writing it back; returns whether it was dirty. */
+    public boolean clean(int page) {
+        int slot = index.get(page);
+        if (slot < 0 || !dirty[slot]) return false;
+        dirty[slot] = false;
+        dirtyCount--;
+        onClean(slot);
+        return true;
+    }
+
+    public boolean isDirty(int page) {
+        int slot = index.get(page);
+        return slot >= 0 && dirty[slot];
+    }
+
+    /** Resident pages that are dirty. */
+    public int dirtyPages() { return dirtyCount; }
+
+    /** Dirty pages evicted by {@link #setLimit} since the last reset; each needs writing back. */
+    public long droppedDirty() { return droppedDirty; }
+
+    /** Whether the page evicted by the last access was dirty and so needs writing back. */
+    public boolean victimDirty() { return victimDirty; }
+
+    protected final boolean dirty(int slot) { return dirty[slot]; }
+
+    private void discard(int slot) {
+        if (dirty[slot]) {
+            dirty[slot] = false;
+            dirtyCount--;
+        }
+    }
+
+    /** Slots that have held a page since the last reset; every occupied slot lies below this. */
+    protected final int slotsUsed() { return used; }
+
+    /** Whether the slot holds a page; slots freed by {@link #setLimit} stay empty until reused. */
+    protected final boolean occupied(int slot) {
+        if (slot >= used) return false;
+        return freeCount == 0 || index.get(pages[slot]) == slot;
+    }
+
+    @Override public int capacity() { return capacity; }
+    @Override public int size() { return size; }
+    @Override public boolean evicted() { return evicted; }
+    @Override public int victim() { return victim; }
+    @Override public int pageAt(int slot) { return pages[slot]; }
+
+    @Override
+    public int slotOf(int page) {
+        return index.get(page);
+    }
+
+    @Override
+    public void reset() {
+        index.clear();
+        size = 0;
+        limit = capacity;
+        used = 0;
+        freeCount = 0;
+        Arrays.fill(dirty, false);
+        dirtyCount = 0;
+        droppedDirty = 0;
+        evicted = victimDirty = false;
+    }
+}
@@ -0,0 +1,52 @@
+package vmsim;
+
+/**
+ * Bounded recency list of pages that are no longer resident, as kept by the
+ * adaptive policies to recognise a page that was evicted recently.
+ */
+final class GhostList {
+    private final int[] pages;
+    private final SlotList order;
+    private final IntIntMap index;
+    private final int[] free;
+    private int freeCount;
+
+    GhostList(int capacity) {
+        pages = new int[capacity];
+        order = new SlotList(capacity);
+        index = new IntIntMap(capacity);
+        free = new int[capacity];
+        clear();
+    }
+
+    int size() { return order.size(); }
+    boolean contains(int page) { return index.containsKey(page); }
+
+    /** Adds the page as most recent; the caller keeps the list within capacity. */
+    void addLast(int page) {
+        int node = free[--freeCount];
+        pages[node] = page;
+        index.put(page, node);
+        order.addLast(node);
+    }
+
+    boolean remove(int page) {
+        int node = index.remove(page);
+        if (node < 0) return false;
+        order.remove(node);
+        free[freeCount++] = node;
+        return true;
+    }
+
+    /** Forgets the least recent page. */
+    void removeFirst() {
+        remove(pages[order.first()]);
+    }
+
+    void clear() {
+        order.clear();
+        index.clear();
+        freeCount = free.length;
+        for (int i = 0; i < free.length; i++) free[i] = free.length - 1 - i;
+    }
+}
@@ -0,0 +1,147 @@
+package vmsim;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int to int with linear probing. Keys and
+ * values are stored unboxed, so lookups and updates never allocate once the
+ * table has been sized for its population.
+ */
+public final class IntIntMap {
+    private static final int FREE = 0;
+    private static final float LOAD = 0.75f;
+
+    private final int missing;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasFreeKey;
+    private int freeValue;
+
+    /** Creates a map that answers {@code missing} for absent keys. */
+    public IntIntMap(int expected, int missing) {
+        this.missing = missing;
+        allocate(tableSize(expected));
+    }
+
+    public IntIntMap(int expected) {
+        this(expected, -1);
+    }
+
+    public int size() { return size; }
+
+    public int get(int key) {
+        if (key == FREE) return hasFreeKey ? freeValue : missing;
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return missing;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE) return hasFreeKey;
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) return true;
+            if (k == FREE) return false;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** Returns the previous value or the missing value. */
+    public int put(int key, int value) {
+        if (key == FREE) {
+            int old = hasFreeKey ? freeValue : missing;
+            if (!hasFreeKey) size++;
+            hasFreeKey = true;
+            freeValue = value;
+            return old;
+        }
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+            if (k == FREE) break;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * LOAD) allocate(keys.length << 1);
+        return missing;
+    }
+
+    /** Returns the removed value or the missing value. */
+    public int remove(int key) {
+        if (key == FREE) {
+            if (!hasFreeKey) return missing;
+            hasFreeKey = false;
+            size--;
+            return freeValue;
+        }
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) break;
+            if (k == FREE) return missing;
+            i = (i + 1) & mask;
+        }
+        int old = values[i];
+        size--;
+        // Backward-shift deletion keeps probe chains intact without tombstones.
+        int gap = i;
+        i = (i + 1) & mask;
+        while (keys[i] != FREE) {
+            int home = mix(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = FREE;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys, oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        if (oldKeys == null) return;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k == FREE) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != FREE) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static int tableSize(int expected) {
+        long needed = (long) Math.ceil(Math.max(expected, 2) / LOAD) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(needed, 1 << 30));
+        return capacity < needed ? capacity << 1 : capacity;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,23 @@
+package vmsim;
+
+/** LIFO: evicts the page that was loaded most recently. */
+public class LifoPolicy extends FramePolicy {
+    private final SlotList stack;
+
+    public LifoPolicy(int capacity) {
+        super(capacity);
+        stack = new SlotList(capacity);
+    }
+
+    @Override public String name() { return "LIFO"; }
+    @Override protected void onHit(int slot) { }
+    @Override protected void onInsert(int slot) { stack.addLast(slot); }
+    @Override protected void onEvict(int slot) { stack.remove(slot); }
+    @Override protected int selectVictim() { return stack.last(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        stack.clear();
+    }
+}
@@ -0,0 +1,213 @@
+package vmsim;
+
+/**
+ * LIRS (Jiang and Zhang): pages are ranked by inter-reference recency. Most
+ * frames hold LIR pages; a small HIR share (1%, at least one frame) cycles
+ * through a FIFO queue and is the only source of victims. The recency stack
+ * also remembers non-resident HIR pages so a quick re-reference can promote
+ * them; that history is bounded to one entry per frame, oldest first.
+ */
+public class LirsPolicy extends FramePolicy {
+    private static final byte LIR = 0, HIR = 1, GHOST = 2;
+
+    private final SlotList stack;
+    private final SlotList queue;
+    private final SlotList ghosts;
+    private final byte[] state;
+    private final boolean[] inStack;
+    private final int[] entryPage;
+    private final IntIntMap ghostIndex;
+    private final int[] free;
+    private int freeCount;
+    private int lirCount;
+    private int incoming = -1;
+
+    public LirsPolicy(int capacity) {
+        super(capacity);
+        // Entries 0..capacity-1 mirror the frame slots; the rest hold ghosts,
+        // with one spare for a ghost that is being brought back in.
+        int entries = 2 * capacity + 1;
+        stack = new SlotList(entries);
+        queue = new SlotList(entries);
+        ghosts = new SlotList(entries);
+        state = new byte[entries];
+        inStack = new boolean[entries];
+        entryPage = new int[entries];
+        ghostIndex = new IntIntMap(capacity);
+        free = new int[capacity + 1];
+        resetEntries();
+    }
+
+    @Override public String name() { return "LIRS"; }
+
+    @Override
+    public boolean access(int page) {
+        incoming = slotOf(page) < 0 ? ghostIndex.remove(page) : -1;
+        if (incoming >= 0) ghosts.remove(incoming);
+        return super.access(page);
+    }
+
+    /** A prefetched page enters as new; any history of it is forgotten rather than counted as a re-reference. */
+    @Override
+    public boolean prefetch(int page) {
+        incoming = -1;
+        int g = slotOf(page) < 0 ? ghostIndex.get(page) : -1;
+        if (g >= 0) forget(g);
+        return super.prefetch(page);
+    }
+
+    @Override
+    protected void onHit(int e) {
+        if (state[e] == LIR) {
+            boolean bottom = stack.first() == e;
+            stack.moveToLast(e);
+            if (bottom) prune();
+        } else if (inStack[e]) {
+            queue.remove(e);
+            stack.moveToLast(e);
+            promote(e);
+        } else {
+            pushStack(e);
+            queue.moveToLast(e);
+        }
+    }
+
+    @Override
+    protected void onInsert(int e) {
+        entryPage[e] = pages[e];
+        int ghost = incoming;
+        incoming = -1;
+        if (ghost >= 0) free[freeCount++] = ghost;
+        if (ghost >= 0 && inStack[ghost]) {
+            // A remembered ghost comes back: it takes over the ghost's place in the stack.
+            stack.replace(ghost, e);
+            inStack[e] = true;
+            inStack[ghost] = false;
+            stack.moveToLast(e);
+            promote(e);
+        } else if (lirCount < lirLimit()) {
+            state[e] = LIR;
+            lirCount++;
+            pushStack(e);
+        } else {
+            state[e] = HIR;
+            pushStack(e);
+            queue.addLast(e);
+        }
+    }
+
+    @Override
+    protected void onEvict(int e) {
+        if (state[e] == LIR) {
+            lirCount--;
+        } else {
+            queue.remove(e);
+        }
+        if (!inStack[e]) return;
+        if (state[e] == LIR) {
+            stack.remove(e);
+            inStack[e] = false;
+            prune();
+            return;
+        }
+        // History is bounded to one entry per usable frame, plus the one in transit.
+        while (free.length - freeCount > limit()) forgetOldestGhost();
+        int g = free[--freeCount];
+        stack.replace(e, g);
+        inStack[g] = true;
+        inStack[e] = false;
+        state[g] = GHOST;
+        entryPage[g] = pages[e];
+        ghostIndex.put(pages[e], g);
+        ghosts.addLast(g);
+    }
+
+    @Override
+    protected int selectVictim() {
+        if (queue.size() == 0) demoteBottom();
+        return queue.first();
+    }
+
+    int lirPages() { return lirCount; }
+
+    /** Resident HIR pages, all of them in the queue. */
+    int hirPages() { return queue.size(); }
+
+    /** The LIR share of the frames currently allowed by {@link #limit()}. */
+    int lirLimit() {
+        int frames = limit();
+        return frames - Math.max(1, frames / 100);
+    }
+
+    /** Makes a resident HIR entry LIR and demotes the bottom LIR entries to keep the LIR share. */
+    private void promote(int e) {
+        state[e] = LIR;
+        lirCount++;
+        prune();
+        while (lirCount > lirLimit()) demoteBottom();
+        prune();
+    }
+
+    /** Turns the bottom LIR entry into a queued HIR entry. */
+    private void demoteBottom() {
+        prune();
+        int bottom = stack.first();
+        stack.remove(bottom);
+        inStack[bottom] = false;
+        state[bottom] = HIR;
+        lirCount--;
+        queue.addLast(bottom);
+    }
+
+    private void pushStack(int e) {
+        if (inStack[e]) {
+            stack.moveToLast(e);
+        } else {
+            stack.addLast(e);
+            inStack[e] = true;
+        }
+    }
+
+    /** Pops HIR entries off the stack bottom so that it always ends in a LIR entry. */
+    private void prune() {
+        for (int e = stack.first(); e >= 0 && state[e] != LIR; e = stack.first()) {
+            stack.remove(e);
+            inStack[e] = false;
+            // The ghost being brought back is already off the ghost list.
+            if (state[e] == GHOST && e != incoming) dropGhost(e);
+        }
+    }
+
+    private void forgetOldestGhost() {
+        forget(ghosts.first());
+    }
+
+    private void forget(int g) {
+        stack.remove(g);
+        inStack[g] = false;
+        dropGhost(g);
+    }
+
+    private void dropGhost(int g) {
+        ghosts.remove(g);
+        ghostIndex.remove(entryPage[g]);
+        free[freeCount++] = g;
+    }
+
+    private void resetEntries() {
+        stack.clear();
+        queue.clear();
+        ghosts.clear();
+        ghostIndex.clear();
+        java.util.Arrays.fill(inStack, false);
+        freeCount = free.length;
+        for (int i = 0; i < free.length; i++) free[i] = 2 * capacity - i;
+        lirCount = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetEntries();
+    }
+}
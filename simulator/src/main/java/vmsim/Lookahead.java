@@ -0,0 +1,13 @@
+package vmsim;
+
+import vmsim.trace.TraceSource;
+
+/**
+ * A policy that needs to see references before they are accessed. The engine
+ * reads the trace through {@link #lookahead(TraceSource)} and must access
+ * every reference handed out by one read before issuing the next.
+ */
+public interface Lookahead {
+
+    TraceSource lookahead(TraceSource source);
+}
@@ -0,0 +1,23 @@
+package vmsim;
+
+/** LRU: evicts the page that has not been referenced for the longest time. */
+public class LruPolicy extends FramePolicy {
+    private final SlotList recency;
+
+    public LruPolicy(int capacity) {
+        super(capacity);
+        recency = new SlotList(capacity);
+    }
+
+    @Override public String name() { return "LRU"; }
+    @Override protected void onHit(int slot) { recency.moveToLast(slot); }
+    @Override protected void onInsert(int slot) { recency.addLast(slot); }
+    @Override protected void onEvict(int slot) { recency.remove(slot); }
+    @Override protected int selectVictim() { return recency.first(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        recency.clear();
+    }
+}
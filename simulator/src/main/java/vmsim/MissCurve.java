@@ -0,0 +1,201 @@
+package vmsim;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Faults at every frame count from a single pass over the trace, for the
+ * stack algorithms (LRU and Optimal) whose contents at n frames are always a
+ * subset of their contents at n + 1 frames. A reference at stack distance d
+ * hits exactly when there are at least d frames.
+ */
+public final class MissCurve {
+    private static final int CANCEL_CHECK_MASK = (1 << 16) - 1;
+    private static final BooleanSupplier NEVER_CANCELLED = () -> false;
+
+    private final long[] faults;
+    private final long references;
+    private final long coldMisses;
+
+    private MissCurve(long[] histogram, long references, long coldMisses) {
+        // histogram[d] counts references at distance d; the last bucket holds
+        // everything deeper than the largest frame count of interest.
+        int maxFrames = histogram.length - 2;
+        faults = new long[maxFrames + 1];
+        long deeper = coldMisses + histogram[maxFrames + 1];
+        for (int frames = maxFrames; frames >= 0; frames--) {
+            faults[frames] = deeper;
+            deeper += histogram[frames];
+        }
+        this.references = references;
+        this.coldMisses = coldMisses;
+    }
+
+    public static boolean supports(String algorithm) {
+        return "LRU".equals(algorithm) || "Optimal".equals(algorithm);
+    }
+
+    public static MissCurve of(String algorithm, int[] trace, int maxFrames) {
+        return of(algorithm, trace, maxFrames, NEVER_CANCELLED);
+    }
+
+    /** Like {@link #of(String, int[], int)}, throwing CancellationException once {@code cancelled} turns true. */
+    public static MissCurve of(String algorithm, int[] trace, int maxFrames, BooleanSupplier cancelled) {
+        switch (algorithm) {
+            case "LRU": return lru(trace, maxFrames, cancelled);
+            case "Optimal": return optimal(trace, maxFrames, cancelled);
+            default: throw new IllegalArgumentException(algorithm + " is not a stack algorithm");
+        }
+    }
+
+    /** LRU stack distances through a Fenwick tree over last-access times: O(n log n). */
+    public static MissCurve lru(int[] trace, int maxFrames) {
+        return lru(trace, maxFrames, NEVER_CANCELLED);
+    }
+
+    private static MissCurve lru(int[] trace, int maxFrames, BooleanSupplier cancelled) {
+        long[] histogram = new long[maxFrames + 2];
+        long cold = 0;
+        ReuseDistance distances = new ReuseDistance();
+        for (int i = 0; i < trace.length; i++) {
+            checkCancelled(i, cancelled);
+            int d = distances.record(trace[i]);
+            if (d == ReuseDistance.COLD) cold++;
+            else histogram[Math.min(d, maxFrames + 1)]++;
+        }
+        return new MissCurve(histogram, trace.length, cold);
+    }
+
+    /**
+     * Mattson's priority stack for OPT: the referenced page moves to the top
+     * and, at each level above its old position, the page with the later next
+     * use is pushed one level down. Only levels whose next use beats every
+     * level above them move, and a max-tree over the stack finds each of those
+     * in O(log maxFrames), so deep misses do not walk the whole stack. A
+     * reference can still push down as many levels as the stack is deep, so
+     * the worst case is O(n maxFrames log maxFrames) and the pass slows as
+     * maxFrames grows, unlike a single {@link OptimalPolicy} run.
+     */
+    public static MissCurve optimal(int[] trace, int maxFrames) {
+        return optimal(trace, maxFrames, NEVER_CANCELLED);
+    }
+
+    private static MissCurve optimal(int[] trace, int maxFrames, BooleanSupplier cancelled) {
+        int[] nextUse = OptimalPolicy.nextUses(trace);
+        long[] histogram = new long[maxFrames + 2];
+        long cold = 0;
+        int[] stack = new int[maxFrames];
+        MaxTree stackNext = new MaxTree(maxFrames);
+        IntIntMap depth = new IntIntMap(maxFrames);
+        IntIntMap seen = new IntIntMap(1024);
+        int size = 0;
+
+        for (int i = 0; i < trace.length; i++) {
+            checkCancelled(i, cancelled);
+            int page = trace[i];
+            int at = depth.get(page);
+            if (at < 0) {
+                if (seen.put(page, 1) < 0) cold++;
+                else histogram[maxFrames + 1]++;
+            } else {
+                histogram[at + 1]++;
+            }
+            if (at == 0) {
+                stackNext.set(0, nextUse[i]);
+                continue;
+            }
+
+            boolean carrying = size > 0;
+            int carry = stack[0], carryNext = stackNext.get(0);
+            stack[0] = page;
+            stackNext.set(0, nextUse[i]);
+            depth.put(page, 0);
+            int end = at < 0 ? size : at;
+            for (int level = stackNext.firstAbove(1, end, carryNext); level >= 0;
+                    level = stackNext.firstAbove(level + 1, end, carryNext)) {
+                int p = stack[level], n = stackNext.get(level);
+                stack[level] = carry;
+                stackNext.set(level, carryNext);
+                depth.put(carry, level);
+                carry = p;
+                carryNext = n;
+            }
+            int place = at >= 0 ? at : size;
+            if (at < 0 && size == maxFrames) {
+                if (carrying) depth.remove(carry);
+                continue;
+            }
+            if (at < 0) size++;
+            if (carrying) {
+                stack[place] = carry;
+                stackNext.set(place, carryNext);
+                depth.put(carry, place);
+            }
+        }
+        return new MissCurve(histogram, trace.length, cold);
+    }
+
+    private static void checkCancelled(int i, BooleanSupplier cancelled) {
+        if ((i & CANCEL_CHECK_MASK) == 0 && cancelled.getAsBoolean()) throw new CancellationException("Miss curve cancelled");
+    }
+
+    /** Segment tree of per-level next uses answering "first level after i with a later next use". */
+    private static final class MaxTree {
+        private final int leaves;
+        private final int[] max;
+
+        MaxTree(int levels) {
+            int n = 1;
+            while (n < levels) n <<= 1;
+            leaves = n;
+            max = new int[2 * n];
+            java.util.Arrays.fill(max, Integer.MIN_VALUE);
+        }
+
+        int get(int level) { return max[leaves + level]; }
+
+        void set(int level, int value) {
+            int i = leaves + level;
+            max[i] = value;
+            for (i >>= 1; i > 0; i >>= 1) max[i] = Math.max(max[2 * i], max[2 * i + 1]);
+        }
+
+        /** First level in [from, to) whose value exceeds the bound, or -1. */
+        int firstAbove(int from, int to, int bound) {
+            return from >= to ? -1 : firstAbove(1, 0, leaves, from, to, bound);
+        }
+
+        private int firstAbove(int node, int lo, int hi, int from, int to, int bound) {
+            if (hi <= from || lo >= to || max[node] <= bound) return -1;
+            if (hi - lo == 1) return lo;
+            int mid = (lo + hi) >>> 1;
+            int found = firstAbove(2 * node, lo, mid, from, to, bound);
+            return found >= 0 ? found : firstAbove(2 * node + 1, mid, hi, from, to, bound);
+        }
+    }
+
+    public int maxFrames() { return faults.length - 1; }
+    public long references() { return references; }
+    public long coldMisses() { return coldMisses; }
+
+    public long faults(int frames) {
+        return faults[frames];
+    }
+
+    public long[] faults(int minFrames, int maxFrames) {
+        long[] curve = new long[maxFrames - minFrames + 1];
+        for (int f = minFrames; f <= maxFrames; f++) curve[f - minFrames] = faults(f);
+        return curve;
+    }
+
+    /**
+     * Re-runs the given frame counts through the per-size simulation and
+     * returns the first one whose fault count disagrees, or -1.
+     */
+    public int crossCheck(String algorithm, int[] trace, int... frameCounts) {
+        for (int frames : frameCounts) {
+            if (Simulation.countFaults(algorithm, frames, trace) != faults(frames)) return frames;
+        }
+        return -1;
+    }
+}
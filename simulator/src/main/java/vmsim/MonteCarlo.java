@@ -0,0 +1,110 @@
+package vmsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Fault statistics of a randomized algorithm over many seeds. Run i uses the
+ * i-th seed drawn from a {@link SplittableRandom} seeded with the base seed,
+ * so the outcome depends only on the base seed and the run count, never on
+ * the pool or the order in which runs finish. Algorithms that are not
+ * {@link Policies#randomized} run once.
+ */
+public final class MonteCarlo {
+    public static final int DEFAULT_RUNS = 100;
+
+    /** Two-sided 97.5% quantiles of Student's t for 1 to 30 degrees of freedom. */
+    private static final double[] T975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private final int[] trace;
+    private final String algorithm;
+    private final int frames, runs;
+    private final long seed;
+
+    public MonteCarlo(int[] trace, String algorithm, int frames, int runs, long seed) {
+        if (frames < 1) throw new IllegalArgumentException("frames must be positive: " + frames);
+        if (runs < 1) throw new IllegalArgumentException("runs must be positive: " + runs);
+        this.trace = trace;
+        this.algorithm = algorithm;
+        this.frames = frames;
+        this.runs = Policies.randomized(algorithm) ? runs : 1;
+        this.seed = seed;
+    }
+
+    public long[] seeds() {
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] seeds = new long[runs];
+        for (int i = 0; i < runs; i++) seeds[i] = root.nextLong();
+        return seeds;
+    }
+
+    public Result run(ForkJoinPool pool) {
+        List<Callable<Long>> cells = new ArrayList<>();
+        for (long s : seeds()) cells.add(() -> Simulation.countFaults(Policies.create(algorithm, frames, trace, s), trace));
+        long[] faults = new long[runs];
+        List<Future<Long>> results = pool.invokeAll(cells);
+        for (int i = 0; i < runs; i++) {
+            try {
+                faults[i] = results.get(i).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Monte Carlo run " + i + " of " + algorithm + " failed", e);
+            }
+        }
+        return new Result(faults);
+    }
+
+    public static final class Result {
+        private final long[] faults;
+        private final double mean, variance;
+
+        /** Statistics of the given fault counts, one per run. */
+        public Result(long... faults) {
+            if (faults.length == 0) throw new IllegalArgumentException("No runs");
+            this.faults = faults.clone();
+            long sum = 0;
+            for (long f : faults) sum += f;
+            mean = (double) sum / faults.length;
+            double squares = 0;
+            for (long f : faults) squares += (f - mean) * (f - mean);
+            variance = faults.length > 1 ? squares / (faults.length - 1) : 0;
+        }
+
+        public int runs() { return faults.length; }
+
+        /** Faults of every run, in seed order. */
+        public long[] faults() { return faults.clone(); }
+
+        public double mean() { return mean; }
+
+        /** Sample variance, 0 for a single run. */
+        public double variance() { return variance; }
+
+        public double standardDeviation() { return Math.sqrt(variance); }
+
+        /** Half-width of the 95% confidence interval of the mean, from Student's t. */
+        public double confidence95() {
+            int df = faults.length - 1;
+            if (df == 0) return 0;
+            return t975(df) * Math.sqrt(variance / faults.length);
+        }
+
+        public double low() { return mean - confidence95(); }
+        public double high() { return mean + confidence95(); }
+    }
+
+    /** Table values up to 30 degrees of freedom, then the Cornish-Fisher expansion around the normal quantile. */
+    static double t975(int df) {
+        if (df <= T975.length) return T975[df - 1];
+        double z = 1.959964, z3 = z * z * z, z5 = z3 * z * z;
+        return z + (z3 + z) / (4.0 * df) + (5 * z5 + 16 * z3 + 3 * z) / (96.0 * df * df);
+    }
+}
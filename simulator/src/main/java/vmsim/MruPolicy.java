@@ -0,0 +1,23 @@
+package vmsim;
+
+/** MRU: evicts the page that was referenced most recently. */
+public class MruPolicy extends FramePolicy {
+    private final SlotList recency;
+
+    public MruPolicy(int capacity) {
+        super(capacity);
+        recency = new SlotList(capacity);
+    }
+
+    @Override public String name() { return "MRU"; }
+    @Override protected void onHit(int slot) { recency.moveToLast(slot); }
+    @Override protected void onInsert(int slot) { recency.addLast(slot); }
+    @Override protected void onEvict(int slot) { recency.remove(slot); }
+    @Override protected int selectVictim() { return recency.last(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        recency.clear();
+    }
+}
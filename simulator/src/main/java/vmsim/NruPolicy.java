@@ -0,0 +1,81 @@
+package vmsim;
+
+/**
+ * NRU (not recently used): pages fall into four classes by their referenced
+ * and dirty bits, and the victim is the oldest page of the lowest non-empty
+ * class, unreferenced clean first and referenced dirty last. Reference bits
+ * are cleared every {@code capacity} accesses, standing in for the clock
+ * interrupt.
+ */
+public class NruPolicy extends FramePolicy {
+    private static final int REFERENCED = 2, DIRTY = 1;
+
+    private final SlotList[] classes = new SlotList[4];
+    private final byte[] classOf;
+    private int ticks;
+
+    public NruPolicy(int capacity) {
+        super(capacity);
+        for (int c = 0; c < classes.length; c++) classes[c] = new SlotList(capacity);
+        classOf = new byte[capacity];
+    }
+
+    @Override public String name() { return "NRU"; }
+
+    @Override
+    public boolean access(int page) {
+        if (++ticks == capacity) {
+            ticks = 0;
+            clearReferenced(REFERENCED);
+            clearReferenced(REFERENCED | DIRTY);
+        }
+        return super.access(page);
+    }
+
+    @Override
+    protected void onHit(int slot) {
+        if ((classOf[slot] & REFERENCED) == 0) move(slot, classOf[slot] | REFERENCED);
+    }
+
+    @Override
+    protected void onInsert(int slot) {
+        classOf[slot] = REFERENCED;
+        classes[REFERENCED].addLast(slot);
+    }
+
+    /** Read-ahead pages come in unreferenced, in the first class to go. */
+    @Override
+    protected void onPrefetch(int slot) {
+        classOf[slot] = 0;
+        classes[0].addLast(slot);
+    }
+
+    @Override protected void onEvict(int slot) { classes[classOf[slot]].remove(slot); }
+    @Override protected void onDirty(int slot) { move(slot, classOf[slot] | DIRTY); }
+    @Override protected void onClean(int slot) { move(slot, classOf[slot] & ~DIRTY); }
+
+    @Override
+    protected int selectVictim() {
+        for (SlotList c : classes) {
+            if (c.size() > 0) return c.first();
+        }
+        throw new IllegalStateException("No resident pages");
+    }
+
+    private void clearReferenced(int from) {
+        for (int s = classes[from].first(); s >= 0; s = classes[from].first()) move(s, from & ~REFERENCED);
+    }
+
+    private void move(int slot, int to) {
+        classes[classOf[slot]].remove(slot);
+        classOf[slot] = (byte) to;
+        classes[to].addLast(slot);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        for (SlotList c : classes) c.clear();
+        ticks = 0;
+    }
+}
@@ -0,0 +1,63 @@
+package vmsim;
+
+/**
+ * Belady's optimal policy: evicts the page whose next use lies farthest in the
+ * future. Next uses are precomputed in one backward pass over the trace and
+ * resident slots are kept in a max-heap on that position, so every reference
+ * costs O(log frames).
+ */
+public class OptimalPolicy extends FramePolicy {
+    public static final int NEVER = Integer.MAX_VALUE;
+
+    private final int[] nextUse;
+    private final SlotHeap byNextUse;
+    private int position;
+
+    public OptimalPolicy(int capacity, int[] trace) {
+        super(capacity);
+        this.nextUse = nextUses(trace);
+        this.byNextUse = new SlotHeap(capacity);
+    }
+
+    /** For every position, the index of the next reference to the same page or {@link #NEVER}. */
+    public static int[] nextUses(int[] trace) {
+        int[] next = new int[trace.length];
+        IntIntMap seen = new IntIntMap(1024, NEVER);
+        for (int i = trace.length - 1; i >= 0; i--) {
+            next[i] = seen.put(trace[i], i);
+        }
+        return next;
+    }
+
+    @Override public String name() { return "Optimal"; }
+
+    @Override
+    public boolean access(int page) {
+        boolean fault = super.access(page);
+        position++;
+        return fault;
+    }
+
+    /** Next uses are only known for referenced pages, so nothing can be loaded ahead. */
+    @Override
+    public boolean supportsPrefetch() {
+        return false;
+    }
+
+    @Override
+    public boolean prefetch(int page) {
+        throw new UnsupportedOperationException(name() + " cannot place prefetched pages");
+    }
+
+    @Override protected void onHit(int slot) { byNextUse.update(slot, nextUse[position]); }
+    @Override protected void onInsert(int slot) { byNextUse.add(slot, nextUse[position]); }
+    @Override protected void onEvict(int slot) { byNextUse.remove(slot); }
+    @Override protected int selectVictim() { return byNextUse.top(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        byNextUse.clear();
+        position = 0;
+    }
+}
@@ -0,0 +1,57 @@
+package vmsim;
+
+/** Creates replacement policies by the names shown in the simulator. */
+public final class Policies {
+    public static final String[] NAMES = {
+        "FIFO", "LRU", "Sampled LRU", "Sampled LFU", "MRU", "Optimal", "LIFO", "Random", "CLOCK", "Enhanced CLOCK", "NRU", "CLOCK-Pro", "ARC", "2Q", "LIRS"
+    };
+
+    private Policies() { }
+
+    /** The trace is only consulted by policies that look into the future. */
+    public static ReplacementPolicy create(String name, int frames, int[] trace) {
+        switch (name) {
+            case "FIFO": return new FifoPolicy(frames);
+            case "LRU": return new LruPolicy(frames);
+            case "Sampled LRU": return new SampledPolicy(frames, SampledPolicy.Mode.LRU);
+            case "Sampled LFU": return new SampledPolicy(frames, SampledPolicy.Mode.LFU);
+            case "MRU": return new MruPolicy(frames);
+            case "Optimal": return new OptimalPolicy(frames, trace);
+            case "LIFO": return new LifoPolicy(frames);
+            case "Random": return new RandomPolicy(frames);
+            case "CLOCK": return new ClockPolicy(frames);
+            case "Enhanced CLOCK": return new EnhancedClockPolicy(frames);
+            case "NRU": return new NruPolicy(frames);
+            case "CLOCK-Pro": return new ClockProPolicy(frames);
+            case "ARC": return new ArcPolicy(frames);
+            case "2Q": return new TwoQPolicy(frames);
+            case "LIRS": return new LirsPolicy(frames);
+            default: throw new IllegalArgumentException("Unknown algorithm: " + name);
+        }
+    }
+
+    /** Like {@link #create(String, int, int[])}, seeding the random stream of a {@link #randomized} algorithm. */
+    public static ReplacementPolicy create(String name, int frames, int[] trace, long seed) {
+        switch (name) {
+            case "Sampled LRU": return new SampledPolicy(frames, SampledPolicy.Mode.LRU, SampledPolicy.DEFAULT_SAMPLES, SampledPolicy.DEFAULT_POOL, seed);
+            case "Sampled LFU": return new SampledPolicy(frames, SampledPolicy.Mode.LFU, SampledPolicy.DEFAULT_SAMPLES, SampledPolicy.DEFAULT_POOL, seed);
+            case "Random": return new RandomPolicy(frames, seed);
+            default: return create(name, frames, trace);
+        }
+    }
+
+    /** Whether the algorithm looks into the trace's future, so it cannot be streamed or sampled. */
+    public static boolean needsTrace(String name) {
+        return name.equals("Optimal");
+    }
+
+    /** Whether the algorithm's policies can take prefetched pages; see {@link FramePolicy#supportsPrefetch}. */
+    public static boolean supportsPrefetch(String name) {
+        return ((FramePolicy) create(name, 1, new int[0])).supportsPrefetch();
+    }
+
+    /** Whether the algorithm's faults depend on its seed. */
+    public static boolean randomized(String name) {
+        return name.equals("Random") || name.equals("Sampled LRU") || name.equals("Sampled LFU");
+    }
+}
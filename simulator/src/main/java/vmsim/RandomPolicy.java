@@ -0,0 +1,45 @@
+package vmsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random: evicts a uniformly chosen resident page. Each instance draws from
+ * its own seeded stream, restarted by {@link #reset}, so a run is
+ * reproducible and parallel runs share no state.
+ */
+public class RandomPolicy extends FramePolicy {
+    public static final long DEFAULT_SEED = 1;
+
+    private final long seed;
+    private SplittableRandom random;
+
+    public RandomPolicy(int capacity) {
+        this(capacity, DEFAULT_SEED);
+    }
+
+    public RandomPolicy(int capacity, long seed) {
+        super(capacity);
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
+    @Override public String name() { return "Random"; }
+    @Override protected void onHit(int slot) { }
+    @Override protected void onInsert(int slot) { }
+    @Override protected void onEvict(int slot) { }
+
+    @Override
+    protected int selectVictim() {
+        int slot;
+        do {
+            slot = random.nextInt(slotsUsed());
+        } while (!occupied(slot));
+        return slot;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        random = new SplittableRandom(seed);
+    }
+}
@@ -0,0 +1,31 @@
+package vmsim;
+
+/**
+ * A page replacement algorithm driven one reference at a time. Resident pages
+ * live in numbered frame slots and keep their slot until they are evicted.
+ */
+public interface ReplacementPolicy {
+
+    String name();
+
+    int capacity();
+
+    int size();
+
+    /** References a page and returns true when it caused a page fault. */
+    boolean access(int page);
+
+    /** Whether the last fault had to evict a resident page. */
+    boolean evicted();
+
+    /** The page evicted by the last fault; only valid when {@link #evicted()} is true. */
+    int victim();
+
+    /** The slot holding the page, or -1 when it is not resident. */
+    int slotOf(int page);
+
+    /** The page held in a slot below {@link #size()}. */
+    int pageAt(int slot);
+
+    void reset();
+}
@@ -0,0 +1,93 @@
+package vmsim;
+
+/**
+ * Streaming LRU stack distances. The last access time of every page is marked
+ * in a Fenwick tree, so the distance of a reuse is the number of marks after
+ * the page's previous access: O(log n) per reference. Times are renumbered
+ * once the tree fills up, which keeps memory proportional to the number of
+ * distinct pages rather than the trace length.
+ */
+public final class ReuseDistance {
+    /** Distance reported for the first reference to a page. */
+    public static final int COLD = Integer.MAX_VALUE;
+
+    private final IntIntMap lastAccess = new IntIntMap(1024, 0);
+    private long[] tree;
+    private int[] pageAt;
+    private int now;
+    private int distinct;
+
+    public ReuseDistance() {
+        this(1 << 16);
+    }
+
+    public ReuseDistance(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        tree = new long[capacity + 1];
+        pageAt = new int[capacity + 1];
+    }
+
+    public int distinctPages() { return distinct; }
+
+    /** Records a reference and returns its stack distance (1 for an immediate reuse) or {@link #COLD}. */
+    public int record(int page) {
+        if (now + 1 >= tree.length) compact();
+        int time = ++now;
+        int last = lastAccess.put(page, time);
+        int distance;
+        if (last == 0) {
+            distinct++;
+            distance = COLD;
+        } else {
+            distance = (int) (prefix(time - 1) - prefix(last)) + 1;
+            add(last, -1);
+        }
+        add(time, 1);
+        pageAt[time] = page;
+        return distance;
+    }
+
+    public void reset() {
+        lastAccess.clear();
+        java.util.Arrays.fill(tree, 0);
+        now = 0;
+        distinct = 0;
+    }
+
+    private void compact() {
+        int capacity = tree.length - 1;
+        int[] pages = pageAt;
+        if (distinct * 2 > capacity) {
+            capacity *= 2;
+            pageAt = new int[capacity + 1];
+            tree = new long[capacity + 1];
+        } else {
+            // Renumbering only moves marks down, so the arrays can be reused in place.
+            java.util.Arrays.fill(tree, 0);
+        }
+        int live = 0;
+        for (int t = 1; t <= now; t++) {
+            int page = pages[t];
+            if (lastAccess.get(page) != t) continue;
+            lastAccess.put(page, ++live);
+            pageAt[live] = page;
+            tree[live] = 1;
+        }
+        // Linear-time Fenwick build over the renumbered marks.
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) tree[parent] += tree[i];
+        }
+        now = live;
+    }
+
+    private void add(int i, long delta) {
+        for (; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    private long prefix(int i) {
+        long sum = 0;
+        for (; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+}
@@ -0,0 +1,172 @@
+package vmsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Approximate LRU or LFU in the style of Redis: instead of keeping an exact
+ * ordering it samples a few random frames on every eviction and evicts the
+ * best candidate seen, remembering the runners-up in a small eviction pool.
+ * Per frame it keeps a single packed int: the access clock for LRU, or an
+ * 8 bit logarithmic counter plus a 24 bit decay stamp for LFU.
+ */
+public class SampledPolicy extends FramePolicy {
+    public enum Mode { LRU, LFU }
+
+    public static final int DEFAULT_SAMPLES = 5;
+    public static final int DEFAULT_POOL = 16;
+    public static final long DEFAULT_SEED = 1;
+    private static final int LFU_INIT = 5;
+    private static final int LFU_LOG_FACTOR = 10;
+
+    private final Mode mode;
+    private final int samples;
+    private final int[] meta;
+    private final int[] poolSlot;
+    private final int[] poolPage;
+    private final long[] poolScore;
+    private final long decayPeriod;
+    private final long seed;
+    private SplittableRandom random;
+    private int poolCount;
+    private long clock;
+
+    public SampledPolicy(int capacity, Mode mode) {
+        this(capacity, mode, DEFAULT_SAMPLES, DEFAULT_POOL, DEFAULT_SEED);
+    }
+
+    /**
+     * @param samples frames sampled per eviction
+     * @param pool    best candidates remembered across evictions, 1 for plain sampling
+     */
+    public SampledPolicy(int capacity, Mode mode, int samples, int pool, long seed) {
+        super(capacity);
+        if (samples < 1) throw new IllegalArgumentException("samples must be positive: " + samples);
+        if (pool < 1) throw new IllegalArgumentException("pool must be positive: " + pool);
+        this.mode = mode;
+        this.samples = samples;
+        this.seed = seed;
+        meta = new int[capacity];
+        poolSlot = new int[pool];
+        poolPage = new int[pool];
+        poolScore = new long[pool];
+        // LFU counters lose one step for each pass over the frame table without a reference.
+        decayPeriod = capacity;
+        random = new SplittableRandom(seed);
+    }
+
+    @Override public String name() { return "Sampled " + mode; }
+
+    @Override
+    public boolean access(int page) {
+        clock++;
+        return super.access(page);
+    }
+
+    @Override
+    protected void onHit(int slot) {
+        if (mode == Mode.LRU) {
+            meta[slot] = (int) clock;
+        } else {
+            meta[slot] = (now() << 8) | increment(decayed(meta[slot]));
+        }
+    }
+
+    @Override
+    protected void onInsert(int slot) {
+        meta[slot] = mode == Mode.LRU ? (int) clock : (now() << 8) | LFU_INIT;
+    }
+
+    @Override protected void onEvict(int slot) { }
+
+    @Override
+    protected int selectVictim() {
+        refreshPool();
+        for (int i = 0; i < samples; ) {
+            int slot = random.nextInt(slotsUsed());
+            if (!occupied(slot)) continue;
+            i++;
+            if (!inPool(slot)) offer(slot, score(slot));
+        }
+        return poolSlot[--poolCount];
+    }
+
+    /** Higher is a better victim: idle time for LRU, inverted decayed counter for LFU. */
+    private long score(int slot) {
+        if (mode == Mode.LRU) return (clock - meta[slot]) & 0xFFFFFFFFL;
+        return 255 - decayed(meta[slot]);
+    }
+
+    private int now() {
+        return (int) (clock / decayPeriod) & 0xFFFFFF;
+    }
+
+    private int decayed(int packed) {
+        int counter = packed & 0xFF;
+        int elapsed = (now() - (packed >>> 8)) & 0xFFFFFF;
+        return elapsed >= counter ? 0 : counter - elapsed;
+    }
+
+    private int increment(int counter) {
+        if (counter == 255) return counter;
+        int base = Math.max(counter - LFU_INIT, 0);
+        return random.nextDouble() < 1.0 / (base * LFU_LOG_FACTOR + 1) ? counter + 1 : counter;
+    }
+
+    /** Drops pool entries whose page has been evicted since and re-scores the rest. */
+    private void refreshPool() {
+        int n = 0;
+        for (int i = 0; i < poolCount; i++) {
+            int slot = poolSlot[i];
+            if (!occupied(slot) || pages[slot] != poolPage[i]) continue;
+            long score = score(slot);
+            int j = n++;
+            for (; j > 0 && poolScore[j - 1] > score; j--) {
+                poolSlot[j] = poolSlot[j - 1];
+                poolPage[j] = poolPage[j - 1];
+                poolScore[j] = poolScore[j - 1];
+            }
+            poolSlot[j] = slot;
+            poolPage[j] = pages[slot];
+            poolScore[j] = score;
+        }
+        poolCount = n;
+    }
+
+    private boolean inPool(int slot) {
+        for (int i = 0; i < poolCount; i++) {
+            if (poolSlot[i] == slot) return true;
+        }
+        return false;
+    }
+
+    /** Inserts a candidate keeping the pool sorted by ascending score; the worst one falls off when full. */
+    private void offer(int slot, long score) {
+        int j;
+        if (poolCount < poolSlot.length) {
+            j = poolCount++;
+        } else if (score > poolScore[0]) {
+            j = poolCount - 1;
+            System.arraycopy(poolSlot, 1, poolSlot, 0, j);
+            System.arraycopy(poolPage, 1, poolPage, 0, j);
+            System.arraycopy(poolScore, 1, poolScore, 0, j);
+        } else {
+            return;
+        }
+        for (; j > 0 && poolScore[j - 1] > score; j--) {
+            poolSlot[j] = poolSlot[j - 1];
+            poolPage[j] = poolPage[j - 1];
+            poolScore[j] = poolScore[j - 1];
+        }
+        poolSlot[j] = slot;
+        poolPage[j] = pages[slot];
+        poolScore[j] = score;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        random = new SplittableRandom(seed);
+        poolCount = 0;
+        clock = 0;
+    }
+}
@@ -0,0 +1,104 @@
+package vmsim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import vmsim.metrics.PolicyMetrics;
+import vmsim.metrics.RunMetrics;
+import vmsim.trace.ArrayTraceSource;
+import vmsim.trace.TraceSource;
+
+/** Runs a policy over a reference string without any UI attached. */
+public final class Simulation {
+    private static final int BATCH = 8192;
+
+    private Simulation() { }
+
+    public static long countFaults(ReplacementPolicy policy, int[] trace) {
+        if (policy instanceof Lookahead) {
+            try {
+                return countFaults(policy, new ArrayTraceSource(trace));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        long faults = 0;
+        for (int page : trace) {
+            if (policy.access(page)) faults++;
+        }
+        return faults;
+    }
+
+    /**
+     * Streams the source once, feeding every policy from the same batches. At
+     * most one of the policies may be a {@link Lookahead}; the others see the
+     * references it reads ahead in the same order.
+     */
+    public static long[] countFaults(ReplacementPolicy[] policies, TraceSource source) throws IOException {
+        source = withLookahead(policies, source);
+        long[] faults = new long[policies.length];
+        int[] batch = new int[BATCH];
+        for (int n; (n = source.read(batch)) >= 0; ) {
+            for (int p = 0; p < policies.length; p++) {
+                ReplacementPolicy policy = policies[p];
+                long f = 0;
+                for (int i = 0; i < n; i++) {
+                    if (policy.access(batch[i])) f++;
+                }
+                faults[p] += f;
+            }
+        }
+        return faults;
+    }
+
+    /** Like {@link #countFaults(ReplacementPolicy[], TraceSource)}, recording every access into {@code metrics}. */
+    public static long[] countFaults(ReplacementPolicy[] policies, TraceSource source, RunMetrics metrics) throws IOException {
+        source = withLookahead(policies, source);
+        PolicyMetrics[] recorders = metrics.startPass(policies);
+        long[] faults = new long[policies.length];
+        int[] batch = new int[BATCH];
+        int[] distances = new int[BATCH];
+        for (int n; (n = source.read(batch)) >= 0; ) {
+            metrics.distances(batch, n, distances);
+            for (int p = 0; p < policies.length; p++) {
+                ReplacementPolicy policy = policies[p];
+                PolicyMetrics recorder = recorders[p];
+                long f = 0;
+                for (int i = 0; i < n; i++) {
+                    boolean fault = policy.access(batch[i]);
+                    recorder.record(fault, fault && policy.evicted(), distances[i]);
+                    if (fault) f++;
+                }
+                faults[p] += f;
+            }
+            metrics.batchDone(n, policies.length);
+        }
+        return faults;
+    }
+
+    public static long countFaults(ReplacementPolicy policy, TraceSource source) throws IOException {
+        return countFaults(new ReplacementPolicy[]{policy}, source)[0];
+    }
+
+    public static long countFaults(String algorithm, int frames, int[] trace) {
+        return countFaults(Policies.create(algorithm, frames, trace), trace);
+    }
+
+    private static TraceSource withLookahead(ReplacementPolicy[] policies, TraceSource source) {
+        for (ReplacementPolicy policy : policies) {
+            if (!(policy instanceof Lookahead)) continue;
+            if (source instanceof LookaheadSource) throw new IllegalArgumentException("Only one lookahead policy per pass");
+            source = new LookaheadSource(((Lookahead) policy).lookahead(source));
+        }
+        return source;
+    }
+
+    private static final class LookaheadSource implements TraceSource {
+        private final TraceSource source;
+
+        LookaheadSource(TraceSource source) {
+            this.source = source;
+        }
+
+        @Override public int read(int[] buffer) throws IOException { return source.read(buffer); }
+    }
+}
@@ -0,0 +1,78 @@
+package vmsim;
+
+/** Indexed binary max-heap of frame slots keyed by a long priority. */
+final class SlotHeap {
+    private final int[] heap;
+    private final int[] position;
+    private final long[] key;
+    private int size;
+
+    SlotHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new long[capacity];
+        java.util.Arrays.fill(position, -1);
+    }
+
+    int size() { return size; }
+    int top() { return heap[0]; }
+    long keyOf(int slot) { return key[slot]; }
+    boolean contains(int slot) { return position[slot] >= 0; }
+
+    void add(int slot, long priority) {
+        key[slot] = priority;
+        heap[size] = slot;
+        position[slot] = size;
+        siftUp(size++);
+    }
+
+    void update(int slot, long priority) {
+        long old = key[slot];
+        key[slot] = priority;
+        if (priority > old) siftUp(position[slot]); else siftDown(position[slot]);
+    }
+
+    void remove(int slot) {
+        int i = position[slot];
+        position[slot] = -1;
+        if (--size == i) return;
+        int last = heap[size];
+        heap[i] = last;
+        position[last] = i;
+        siftUp(i);
+        siftDown(position[last]);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (key[heap[parent]] >= key[slot]) break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = slot;
+        position[slot] = i;
+    }
+
+    private void siftDown(int i) {
+        int slot = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && key[heap[child + 1]] > key[heap[child]]) child++;
+            if (key[slot] >= key[heap[child]]) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = slot;
+        position[slot] = i;
+    }
+}
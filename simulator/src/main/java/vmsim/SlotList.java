@@ -0,0 +1,53 @@
+package vmsim;
+
+/** Intrusive doubly-linked list over frame slots with O(1) unlink and move. */
+final class SlotList {
+    private static final int NIL = -1;
+    private final int[] prev;
+    private final int[] next;
+    private int head = NIL, tail = NIL, size;
+
+    SlotList(int capacity) {
+        prev = new int[capacity];
+        next = new int[capacity];
+    }
+
+    int first() { return head; }
+    int last() { return tail; }
+    int size() { return size; }
+
+    void addLast(int slot) {
+        prev[slot] = tail;
+        next[slot] = NIL;
+        if (tail == NIL) head = slot; else next[tail] = slot;
+        tail = slot;
+        size++;
+    }
+
+    void remove(int slot) {
+        int p = prev[slot], n = next[slot];
+        if (p == NIL) head = n; else next[p] = n;
+        if (n == NIL) tail = p; else prev[n] = p;
+        size--;
+    }
+
+    /** Puts another slot in this slot's place, keeping its position in the list. */
+    void replace(int slot, int with) {
+        int p = prev[slot], n = next[slot];
+        prev[with] = p;
+        next[with] = n;
+        if (p == NIL) head = with; else next[p] = with;
+        if (n == NIL) tail = with; else prev[n] = with;
+    }
+
+    void moveToLast(int slot) {
+        if (slot == tail) return;
+        remove(slot);
+        addLast(slot);
+    }
+
+    void clear() {
+        head = tail = NIL;
+        size = 0;
+    }
+}
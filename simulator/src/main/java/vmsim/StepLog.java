@@ -0,0 +1,196 @@
+package vmsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Compact record of a simulation run: per step the referenced page and one
+ * packed event word (slot of the page, eviction and fault bits); the victim
+ * is whatever the slot held before. Every {@code interval} steps a copy of
+ * the frame table is kept as a checkpoint, so the frame table at any step is
+ * rebuilt by replaying at most one interval from the nearest checkpoint, and
+ * walking the steps in order costs O(1) each.
+ */
+public final class StepLog {
+    private static final byte[] MAGIC = {'V', 'M', 'S', 'L', 1};
+    private static final int FAULT = 1, EVICTED = 2;
+    private static final int MIN_INTERVAL = 1024;
+
+    private final String algorithm;
+    private final int frames;
+    private final int interval;
+    private int[] pages = new int[1024];
+    private int[] events = new int[1024];
+    private int steps;
+    private long faults;
+
+    private final int[] head;
+    private int headSize;
+    private int[] checkpoints = new int[0];
+    private int[] checkpointSizes = new int[16];
+
+    private final int[] cursor;
+    private int cursorStep = -1;
+    private int cursorSize;
+
+    /** Checkpoints every max(1024, frames) steps, so they never outweigh the log itself. */
+    public StepLog(String algorithm, int frames) {
+        this(algorithm, frames, Math.max(MIN_INTERVAL, frames));
+    }
+
+    public StepLog(String algorithm, int frames, int interval) {
+        if (frames < 1) throw new IllegalArgumentException("frames must be positive: " + frames);
+        if (interval < 1) throw new IllegalArgumentException("interval must be positive: " + interval);
+        this.algorithm = algorithm;
+        this.frames = frames;
+        this.interval = interval;
+        this.head = new int[frames];
+        this.cursor = new int[frames];
+    }
+
+    /** Runs one reference through the policy and records what happened. */
+    public boolean record(ReplacementPolicy policy, int page) {
+        boolean fault = policy.access(page);
+        append(page, policy.slotOf(page) << 2 | (policy.evicted() ? EVICTED : 0) | (fault ? FAULT : 0));
+        return fault;
+    }
+
+    private void append(int page, int event) {
+        if (steps % interval == 0) checkpoint(steps / interval);
+        if (steps == pages.length) {
+            pages = Arrays.copyOf(pages, steps * 2);
+            events = Arrays.copyOf(events, steps * 2);
+        }
+        pages[steps] = page;
+        events[steps] = event;
+        steps++;
+        if ((event & FAULT) == 0) return;
+        faults++;
+        head[event >>> 2] = page;
+        if ((event & EVICTED) == 0) headSize++;
+    }
+
+    private void checkpoint(int k) {
+        if (k == checkpointSizes.length) checkpointSizes = Arrays.copyOf(checkpointSizes, k * 2);
+        checkpointSizes[k] = headSize;
+        if (headSize == 0) return;
+        int needed = (k + 1) * frames;
+        if (needed > checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, Math.max(needed, 2 * checkpoints.length));
+        System.arraycopy(head, 0, checkpoints, k * frames, headSize);
+    }
+
+    public String algorithm() { return algorithm; }
+    public int frames() { return frames; }
+    public int steps() { return steps; }
+    public long faults() { return faults; }
+    public int page(int step) { return pages[step]; }
+    public int slot(int step) { return events[step] >>> 2; }
+    public boolean fault(int step) { return (events[step] & FAULT) != 0; }
+    public boolean evicted(int step) { return (events[step] & EVICTED) != 0; }
+
+    /**
+     * Moves the replay cursor to the frame table as it stood after {@code step}
+     * (-1 for before the first reference) and returns the number of occupied slots.
+     */
+    public int seek(int step) {
+        // The checkpoint after the last recorded step is only taken with the next one.
+        int k = Math.min((step + 1) / interval, (steps - 1) / interval);
+        int base = k * interval - 1;
+        if (cursorStep < base || cursorStep > step) {
+            cursorSize = checkpointSizes[k];
+            System.arraycopy(checkpoints, k * frames, cursor, 0, cursorSize);
+            cursorStep = base;
+        }
+        while (cursorStep < step) {
+            int e = events[++cursorStep];
+            if ((e & FAULT) == 0) continue;
+            cursor[e >>> 2] = pages[cursorStep];
+            if ((e & EVICTED) == 0) cursorSize++;
+        }
+        return cursorSize;
+    }
+
+    /** Returns the page held in {@code slot} at the cursor's step. */
+    public int frameAt(int slot) {
+        return cursor[slot];
+    }
+
+    /** Returns the page evicted at {@code step}; only meaningful when {@link #evicted(int)}. */
+    public int victim(int step) {
+        seek(step - 1);
+        return cursor[slot(step)];
+    }
+
+    /**
+     * Writes the magic bytes, the algorithm name, the frame and step counts and
+     * then per step a zigzag varint page delta and a varint event word.
+     * Checkpoints are not stored; {@link #load} rebuilds them.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeUTF(algorithm);
+            out.writeInt(frames);
+            out.writeInt(steps);
+            int previous = 0;
+            for (int i = 0; i < steps; i++) {
+                int delta = pages[i] - previous;
+                previous = pages[i];
+                writeVarint(out, (delta << 1) ^ (delta >> 31));
+                writeVarint(out, events[i]);
+            }
+        }
+    }
+
+    public static StepLog load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a step log: " + file);
+            String algorithm = in.readUTF();
+            int frames = in.readInt();
+            int steps = in.readInt();
+            if (frames < 1 || steps < 0) throw new IOException("Malformed step log header: " + file);
+            StepLog log = new StepLog(algorithm, frames);
+            int previous = 0;
+            for (int i = 0; i < steps; i++) {
+                int encoded = readVarint(in);
+                previous += (encoded >>> 1) ^ -(encoded & 1);
+                int event = readVarint(in);
+                boolean fills = (event & FAULT) != 0 && (event & EVICTED) == 0;
+                if (event >>> 2 >= frames || fills && log.headSize == frames) {
+                    throw new IOException("Inconsistent event at step " + (i + 1) + ": " + file);
+                }
+                log.append(previous, event);
+            }
+            return log;
+        } catch (EOFException e) {
+            throw new IOException("Truncated step log: " + file, e);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift <= 28; shift += 7) {
+            byte b = in.readByte();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IOException("Malformed varint in step log");
+    }
+}
@@ -0,0 +1,75 @@
+package vmsim;
+
+/**
+ * 2Q (Johnson and Shasha): first-time pages enter a small FIFO (A1in) and
+ * are remembered in a ghost FIFO (A1out) after eviction; only pages that
+ * come back while remembered reach the main LRU (Am). A scan therefore
+ * cycles through A1in without flushing the hot set.
+ */
+public class TwoQPolicy extends FramePolicy {
+    private final SlotList in;
+    private final SlotList main;
+    private final boolean[] inMain;
+    private final GhostList out;
+    private boolean promote;
+
+    public TwoQPolicy(int capacity) {
+        super(capacity);
+        in = new SlotList(capacity);
+        main = new SlotList(capacity);
+        inMain = new boolean[capacity];
+        out = new GhostList(Math.max(1, capacity / 2));
+    }
+
+    @Override public String name() { return "2Q"; }
+
+    @Override
+    public boolean access(int page) {
+        promote = slotOf(page) < 0 && out.remove(page);
+        return super.access(page);
+    }
+
+    /** Loading ahead is not a re-reference: the page enters A1in even if A1out remembers it. */
+    @Override
+    public boolean prefetch(int page) {
+        promote = false;
+        if (slotOf(page) < 0) out.remove(page);
+        return super.prefetch(page);
+    }
+
+    @Override
+    protected void onHit(int slot) {
+        if (inMain[slot]) main.moveToLast(slot);
+    }
+
+    @Override
+    protected void onInsert(int slot) {
+        inMain[slot] = promote;
+        if (promote) main.addLast(slot); else in.addLast(slot);
+    }
+
+    @Override
+    protected void onEvict(int slot) {
+        if (inMain[slot]) {
+            main.remove(slot);
+            return;
+        }
+        in.remove(slot);
+        // A1in and A1out are sized to the current limit, so they shrink with it.
+        while (out.size() >= Math.max(1, limit() / 2)) out.removeFirst();
+        out.addLast(pages[slot]);
+    }
+
+    @Override
+    protected int selectVictim() {
+        return in.size() > Math.max(1, limit() / 4) || main.size() == 0 ? in.first() : main.first();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        in.clear();
+        main.clear();
+        out.clear();
+    }
+}
@@ -0,0 +1,149 @@
+package vmsim;
+
+import java.io.IOException;
+import vmsim.trace.TraceSource;
+
+/**
+ * Belady's policy over a streamed trace with a bounded lookahead window.
+ * Upcoming references sit in a ring buffer and each one is linked to the
+ * next reference to the same page inside the window. Resident pages whose
+ * next use is known are evicted farthest-first; pages not seen in the window
+ * rank behind all of them and fall back to LRU order. Heap use depends only
+ * on the window and frame count, never on the trace length.
+ */
+public class WindowedOptimalPolicy extends FramePolicy implements Lookahead {
+    private static final long UNSEEN = 1L << 62;
+    private static final long NONE = -1;
+
+    private final int window;
+    private final int mask;
+    private final int[] ring;
+    private final long[] nextInWindow;
+    private final IntIntMap lastInWindow;
+    private final SlotHeap byNextUse;
+    private long position;
+    private long end;
+    private long currentKey;
+
+    public WindowedOptimalPolicy(int capacity, int window) {
+        super(capacity);
+        if (window < 1) throw new IllegalArgumentException("window must be positive: " + window);
+        this.window = window;
+        int size = Integer.highestOneBit(Math.max(2, 2 * window - 1)) << 1;
+        this.mask = size - 1;
+        this.ring = new int[size];
+        this.nextInWindow = new long[size];
+        this.lastInWindow = new IntIntMap(size);
+        this.byNextUse = new SlotHeap(capacity);
+    }
+
+    @Override public String name() { return "Optimal (window " + window + ")"; }
+
+    public int window() { return window; }
+
+    @Override
+    public TraceSource lookahead(TraceSource source) {
+        return new Window(source);
+    }
+
+    @Override
+    public boolean access(int page) {
+        int idx = (int) (position & mask);
+        if (position >= end || ring[idx] != page) {
+            throw new IllegalStateException("References must come through lookahead()");
+        }
+        long next = nextInWindow[idx];
+        currentKey = next != NONE ? next : UNSEEN + (UNSEEN - 1 - position);
+        boolean fault = super.access(page);
+        if (lastInWindow.get(page) == idx) lastInWindow.remove(page);
+        position++;
+        return fault;
+    }
+
+    /**
+     * Runs the windowed policy and exact OPT over the same in-memory trace and
+     * returns their fault counts as {windowed, exact}.
+     */
+    public static long[] compareWithOptimal(int[] trace, int frames, int window) {
+        long windowed = Simulation.countFaults(new WindowedOptimalPolicy(frames, window), trace);
+        long exact = Simulation.countFaults(new OptimalPolicy(frames, trace), trace);
+        return new long[]{windowed, exact};
+    }
+
+    private void append(int page) {
+        int idx = (int) (end & mask);
+        ring[idx] = page;
+        nextInWindow[idx] = NONE;
+        int previous = lastInWindow.put(page, idx);
+        if (previous >= 0) {
+            nextInWindow[previous] = end;
+        } else {
+            // The page has no pending reference, so if it is resident its key
+            // is an LRU fallback that this sighting now replaces.
+            int slot = slotOf(page);
+            if (slot >= 0 && byNextUse.keyOf(slot) >= UNSEEN) byNextUse.update(slot, end);
+        }
+        end++;
+    }
+
+    /** Next uses are only known for referenced pages, so nothing can be loaded ahead. */
+    @Override
+    public boolean supportsPrefetch() {
+        return false;
+    }
+
+    @Override
+    public boolean prefetch(int page) {
+        throw new UnsupportedOperationException(name() + " cannot place prefetched pages");
+    }
+
+    @Override protected void onHit(int slot) { byNextUse.update(slot, currentKey); }
+    @Override protected void onInsert(int slot) { byNextUse.add(slot, currentKey); }
+    @Override protected void onEvict(int slot) { byNextUse.remove(slot); }
+    @Override protected int selectVictim() { return byNextUse.top(); }
+
+    @Override
+    public void reset() {
+        super.reset();
+        byNextUse.clear();
+        lastInWindow.clear();
+        position = end = 0;
+    }
+
+    private final class Window implements TraceSource {
+        private final TraceSource source;
+        private final int[] staged = new int[Math.min(window, 8192)];
+        private int stagedAt, stagedCount;
+        private boolean exhausted;
+
+        Window(TraceSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(int[] buffer) throws IOException {
+            int n = Math.min(buffer.length, window);
+            while (!exhausted && end < position + n + window) {
+                if (stagedAt == stagedCount) {
+                    stagedCount = source.read(staged);
+                    stagedAt = 0;
+                    if (stagedCount < 0) {
+                        exhausted = true;
+                        break;
+                    }
+                    continue;
+                }
+                append(staged[stagedAt++]);
+            }
+            n = (int) Math.min(n, end - position);
+            if (n == 0) return -1;
+            for (int i = 0; i < n; i++) buffer[i] = ring[(int) ((position + i) & mask)];
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,739 @@
+package vmsim.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import vmsim.FaultSweep;
+import vmsim.FramePolicy;
+import vmsim.MonteCarlo;
+import vmsim.Policies;
+import vmsim.RandomPolicy;
+import vmsim.metrics.Escaping;
+import vmsim.mmu.Latencies;
+import vmsim.mmu.PageTable;
+import vmsim.mmu.Tlb;
+import vmsim.mmu.TranslationSimulation;
+import vmsim.prefetch.PrefetchSimulation;
+import vmsim.prefetch.Prefetchers;
+import vmsim.sampling.SampledSweep;
+import vmsim.trace.ArrayTraceSource;
+import vmsim.trace.TraceFiles;
+import vmsim.trace.TraceSource;
+import vmsim.workload.Workloads;
+import vmsim.writeback.IoCost;
+import vmsim.writeback.WriteBackSimulation;
+
+/**
+ * Headless entry point: sweeps every trace file over the requested algorithms
+ * and frame counts and writes one result row per (trace, algorithm, frames).
+ * It only touches the engine packages, so it never loads AWT and runs on
+ * machines without a display.
+ *
+ * <p>With {@code --page-sizes} the traces hold virtual addresses instead of
+ * page numbers: each page size gets the frames that fit in {@code --memory},
+ * and every row adds the TLB hit ratio, page walks, page-table size and the
+ * effective memory access time.
+ *
+ * <p>With {@code --write-back} references may be marked as stores ({@code 7w})
+ * and every row adds the dirty pages written back on eviction, those written
+ * by the optional background flusher, and the I/O operations and time of the
+ * run, page-ins included.
+ *
+ * <p>With {@code --runs} every randomized algorithm is also run with that
+ * many seeds drawn from {@code --seed}, and rows add the mean, variance and
+ * 95% confidence interval of its faults.
+ *
+ * <p>With {@code --prefetch} each (algorithm, frames) pair also runs behind
+ * every listed prefetcher, and rows add the pages prefetched, the prefetch
+ * accuracy and coverage, and the prefetched pages evicted unused.
+ *
+ * <p>With {@code --sample} the trace is streamed instead of loaded and every
+ * algorithm runs on spatially sampled pages with scaled-down frame counts;
+ * rows hold the estimated faults with their 95% confidence interval across
+ * samples, and {@code --verify} adds the exact faults of a full run and the
+ * error of the estimate.
+ *
+ * <p>Each {@code --workload} adds a generated trace, such as
+ * {@code "zipf pages=4096 skew=1.1"}, which runs like a trace file named by
+ * its spec.
+ *
+ * <pre>
+ * java -cp vmsim-simulator.jar vmsim.cli.BatchRunner [options] trace...
+ * </pre>
+ */
+public final class BatchRunner {
+    private static final String USAGE = String.join("\n",
+        "Usage: BatchRunner [options] trace...",
+        "  -a, --algorithms LIST   comma-separated algorithm names (default: all)",
+        "  -f, --frames LIST       frame counts and ranges, e.g. 64 or 1-64,128,256 (default: 1-64)",
+        "  -t, --threads N         worker threads (default: available processors)",
+        "  -o, --output FILE       write results to FILE instead of standard output",
+        "      --format csv|json   output format (default: from the file extension, else csv)",
+        "      --max-references N  refuse traces longer than N references (default: 67108864)",
+        "  -w, --workload SPEC     also run a generated trace, e.g. \"zipf pages=4096 skew=0.99 length=1M\"",
+        "                          (" + String.join(", ", Workloads.NAMES) + "; may be repeated);",
+        "                          K, M and G are powers of 1024, so length=1M is 1048576 references",
+        "  -q, --quiet             no progress on standard error",
+        "      --seed N            seed of the randomized algorithms (default: " + RandomPolicy.DEFAULT_SEED + ")",
+        "      --runs N            Monte Carlo: run randomized algorithms with N seeds derived from --seed",
+        "                          and add the mean, variance and 95% confidence interval of their faults",
+        "Address traces:",
+        "      --page-sizes LIST   treat traces as 32-bit virtual addresses split at these page sizes, e.g. 4K,2M",
+        "      --memory SIZE       physical memory shared out as frames of each page size (default: 64M)",
+        "      --tlb SPEC          ENTRIES[xWAYS][:ALGORITHM], e.g. 64x4:LRU (default); no WAYS means fully associative",
+        "      --level-bits N      page-number bits resolved per page-table level (default: 10)",
+        "      --latency LIST      nanoseconds for tlb, memory, walk (per level) and fault, e.g. memory=80,fault=8e6",
+        "                          (default: " + Latencies.DEFAULT + ")",
+        "Write-back:",
+        "      --write-back        track stores (references written as 7w) and report write-back I/O",
+        "      --flush N:BATCH     every N references, write up to BATCH dirty pages back in one operation",
+        "      --io-cost LIST      nanoseconds per operation and per page, e.g. operation=5e6,page=2e4",
+        "                          (default: " + IoCost.DEFAULT + ")",
+        "Sampling:",
+        "      --sample RATE       estimate faults from spatially sampled pages, e.g. 1% or 0.01, streaming",
+        "                          the trace in constant memory (Optimal is skipped)",
+        "      --sample-sets N     independent samples behind each confidence interval (default: " + SampledSweep.DEFAULT_SETS + ")",
+        "      --verify            also run the full trace and report the error of each estimate",
+        "Prefetching:",
+        "      --prefetch LIST     prefetchers to run in front of each algorithm, or none for demand paging",
+        "                          (" + String.join(", ", Prefetchers.NAMES) + "; Optimal is skipped)",
+        "Algorithms: " + String.join(", ", Policies.NAMES));
+
+    private final List<Path> traces = new ArrayList<>();
+    private final List<String> workloads = new ArrayList<>();
+    private String[] algorithms = Policies.NAMES;
+    private final List<int[]> frameRanges = new ArrayList<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Path output;
+    private String format;
+    private int maxReferences = 1 << 26;
+    private boolean quiet;
+    private final List<Integer> pageShifts = new ArrayList<>();
+    private long memory = 64L << 20;
+    private int tlbEntries = 64, tlbWays = 4;
+    private String tlbPolicy = "LRU";
+    private int levelBits = 10;
+    private Latencies latencies = Latencies.DEFAULT;
+    private boolean writeBack;
+    private int flushInterval, flushBatch;
+    private IoCost ioCost = IoCost.DEFAULT;
+    private String[] prefetchers;
+    private boolean algorithmsGiven;
+    private long seed = RandomPolicy.DEFAULT_SEED;
+    private int runs;
+    private double sampleRate;
+    private int sampleSets = SampledSweep.DEFAULT_SETS;
+    private boolean verify;
+
+    private BatchRunner() { }
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            runner.run();
+        } catch (IOException e) {
+            System.err.println("vmsim: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-a": case "--algorithms":
+                    algorithms = value(args, ++i, arg).split("\\s*,\\s*");
+                    algorithmsGiven = true;
+                    for (String algorithm : algorithms) {
+                        if (!Arrays.asList(Policies.NAMES).contains(algorithm)) {
+                            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+                        }
+                    }
+                    break;
+                case "-f": case "--frames":
+                    for (String item : value(args, ++i, arg).split("\\s*,\\s*")) frameRanges.add(range(item));
+                    break;
+                case "-t": case "--threads":
+                    threads = positive(value(args, ++i, arg), arg);
+                    break;
+                case "-o": case "--output":
+                    output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--format":
+                    format = value(args, ++i, arg).toLowerCase(Locale.ROOT);
+                    if (!format.equals("csv") && !format.equals("json")) throw new IllegalArgumentException("Unknown format: " + format);
+                    break;
+                case "--max-references":
+                    maxReferences = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--page-sizes":
+                    for (String item : value(args, ++i, arg).split("\\s*,\\s*")) {
+                        long size = size(item, arg);
+                        if (Long.bitCount(size) != 1 || size < 1 << 10 || size > 1 << 30) {
+                            throw new IllegalArgumentException("Page size must be a power of two from 1K to 1G: " + item);
+                        }
+                        pageShifts.add(Long.numberOfTrailingZeros(size));
+                    }
+                    break;
+                case "--memory":
+                    memory = size(value(args, ++i, arg), arg);
+                    break;
+                case "--tlb":
+                    tlb(value(args, ++i, arg));
+                    break;
+                case "--level-bits":
+                    levelBits = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--latency":
+                    latencies(value(args, ++i, arg));
+                    break;
+                case "--write-back":
+                    writeBack = true;
+                    break;
+                case "--flush":
+                    flush(value(args, ++i, arg));
+                    writeBack = true;
+                    break;
+                case "--io-cost":
+                    ioCost(value(args, ++i, arg));
+                    writeBack = true;
+                    break;
+                case "--seed":
+                    try {
+                        seed = Long.parseLong(value(args, ++i, arg).trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--seed needs a number: " + args[i]);
+                    }
+                    break;
+                case "--runs":
+                    runs = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--prefetch":
+                    prefetchers = value(args, ++i, arg).split("\\s*,\\s*");
+                    for (String prefetcher : prefetchers) {
+                        if (!prefetcher.equals("none") && !Arrays.asList(Prefetchers.NAMES).contains(prefetcher)) {
+                            throw new IllegalArgumentException("Unknown prefetcher: " + prefetcher);
+                        }
+                    }
+                    break;
+                case "--sample":
+                    sampleRate = rate(value(args, ++i, arg));
+                    break;
+                case "--sample-sets":
+                    sampleSets = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--verify":
+                    verify = true;
+                    break;
+                case "-w": case "--workload":
+                    workloads.add(value(args, ++i, arg));
+                    break;
+                case "-q": case "--quiet":
+                    quiet = true;
+                    break;
+                case "-h": case "--help":
+                    System.out.println(USAGE);
+                    System.exit(0);
+                    break;
+                default:
+                    if (arg.startsWith("-")) throw new IllegalArgumentException("Unknown option: " + arg);
+                    traces.add(Paths.get(arg));
+            }
+        }
+        if (traces.isEmpty() && workloads.isEmpty()) throw new IllegalArgumentException("No trace files or workloads given");
+        if (!pageShifts.isEmpty()) {
+            if (!frameRanges.isEmpty()) throw new IllegalArgumentException("--frames does not apply to address traces; use --memory");
+            if (writeBack) throw new IllegalArgumentException("--write-back does not apply to address traces");
+            new PageTable(pageShifts.get(0), levelBits);
+        }
+        if (prefetchers != null) {
+            if (!pageShifts.isEmpty() || writeBack) throw new IllegalArgumentException("--prefetch cannot be combined with address traces or --write-back");
+            if (algorithmsGiven) {
+                for (String a : algorithms) {
+                    if (!Policies.supportsPrefetch(a)) throw new IllegalArgumentException(a + " cannot place prefetched pages");
+                }
+            }
+            algorithms = Arrays.stream(algorithms).filter(Policies::supportsPrefetch).toArray(String[]::new);
+        }
+        if (runs > 0 && (!pageShifts.isEmpty() || writeBack || prefetchers != null)) {
+            throw new IllegalArgumentException("--runs only applies to plain page-number sweeps");
+        }
+        if (sampleRate > 0) {
+            if (!pageShifts.isEmpty() || writeBack || prefetchers != null || runs > 0) {
+                throw new IllegalArgumentException("--sample only applies to plain page-number sweeps");
+            }
+            if (algorithmsGiven) {
+                for (String a : algorithms) {
+                    if (Policies.needsTrace(a)) throw new IllegalArgumentException(a + " needs the whole trace and cannot be sampled");
+                }
+            }
+            algorithms = Arrays.stream(algorithms).filter(a -> !Policies.needsTrace(a)).toArray(String[]::new);
+        } else if (verify) {
+            throw new IllegalArgumentException("--verify needs --sample");
+        }
+        if (frameRanges.isEmpty()) frameRanges.add(new int[] {1, 64});
+        if (format == null) {
+            format = output != null && output.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") ? "json" : "csv";
+        }
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+        return args[i];
+    }
+
+    private static int positive(String value, String option) {
+        try {
+            int n = Integer.parseInt(value.trim());
+            if (n > 0) return n;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " needs a positive number: " + value);
+    }
+
+    /** A byte count with an optional K, M or G suffix. */
+    private static long size(String value, String option) {
+        String s = value.trim().toUpperCase(Locale.ROOT);
+        int shift = s.endsWith("K") ? 10 : s.endsWith("M") ? 20 : s.endsWith("G") ? 30 : 0;
+        if (shift > 0) s = s.substring(0, s.length() - 1);
+        try {
+            long n = Long.parseLong(s);
+            if (n > 0 && n <= Long.MAX_VALUE >> shift) return n << shift;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " needs a positive size: " + value);
+    }
+
+    private void tlb(String spec) {
+        String[] parts = spec.split(":", 2);
+        String[] geometry = parts[0].toLowerCase(Locale.ROOT).split("x", 2);
+        tlbEntries = positive(geometry[0], "--tlb");
+        tlbWays = geometry.length > 1 ? positive(geometry[1], "--tlb") : tlbEntries;
+        if (parts.length > 1) tlbPolicy = parts[1].trim();
+        if (!Arrays.asList(Policies.NAMES).contains(tlbPolicy)) throw new IllegalArgumentException("Unknown algorithm: " + tlbPolicy);
+        new Tlb(tlbEntries, tlbWays, tlbPolicy);
+    }
+
+    private void latencies(String list) {
+        double tlb = latencies.tlb(), mem = latencies.memory(), walk = latencies.walk(), fault = latencies.fault();
+        for (String item : list.split("\\s*,\\s*")) {
+            String[] kv = item.split("\\s*=\\s*", 2);
+            double ns;
+            try {
+                ns = Double.parseDouble(kv.length > 1 ? kv[1] : "");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid latency: " + item);
+            }
+            switch (kv[0]) {
+                case "tlb": tlb = ns; break;
+                case "memory": mem = ns; break;
+                case "walk": walk = ns; break;
+                case "fault": fault = ns; break;
+                default: throw new IllegalArgumentException("Unknown latency: " + kv[0]);
+            }
+        }
+        latencies = new Latencies(tlb, mem, walk, fault);
+    }
+
+    private void flush(String spec) {
+        String[] parts = spec.split(":", 2);
+        if (parts.length < 2) throw new IllegalArgumentException("--flush needs INTERVAL:BATCH: " + spec);
+        flushInterval = positive(parts[0], "--flush");
+        flushBatch = positive(parts[1], "--flush");
+    }
+
+    private void ioCost(String list) {
+        double operation = ioCost.operation(), page = ioCost.page();
+        for (String item : list.split("\\s*,\\s*")) {
+            String[] kv = item.split("\\s*=\\s*", 2);
+            double ns;
+            try {
+                ns = Double.parseDouble(kv.length > 1 ? kv[1] : "");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid I/O cost: " + item);
+            }
+            switch (kv[0]) {
+                case "operation": operation = ns; break;
+                case "page": page = ns; break;
+                default: throw new IllegalArgumentException("Unknown I/O cost: " + kv[0]);
+            }
+        }
+        ioCost = new IoCost(operation, page);
+    }
+
+    /** A fraction in (0, 1], or a percentage. */
+    private static double rate(String value) {
+        String s = value.trim();
+        boolean percent = s.endsWith("%");
+        try {
+            double rate = Double.parseDouble(percent ? s.substring(0, s.length() - 1) : s) / (percent ? 100 : 1);
+            if (rate > 0 && rate <= 1) return rate;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("--sample needs a rate in (0, 1] or a percentage: " + value);
+    }
+
+    private static int[] range(String item) {
+        String[] bounds = item.split("\\s*-\\s*");
+        if (bounds.length > 2) throw new IllegalArgumentException("Invalid frame range: " + item);
+        int min = positive(bounds[0], "--frames");
+        int max = positive(bounds[bounds.length - 1], "--frames");
+        if (max < min) throw new IllegalArgumentException("Invalid frame range: " + item);
+        return new int[] {min, max};
+    }
+
+    /**
+     * Writes the results to standard output, or to a ".part" file next to the
+     * output that replaces it only once every input has run, so a bad trace
+     * never leaves a truncated report behind.
+     */
+    private void run() throws IOException {
+        if (output == null) {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                run(out);
+            }
+            return;
+        }
+        Path partial = output.resolveSibling(output.getFileName() + ".part");
+        boolean done = false;
+        try {
+            try (Writer out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                run(out);
+            }
+            try {
+                Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING);
+            }
+            done = true;
+        } finally {
+            if (!done) Files.deleteIfExists(partial);
+        }
+    }
+
+    private void run(Writer out) throws IOException {
+        PrintStream progress = quiet ? null : System.err;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            boolean json = format.equals("json");
+            boolean addresses = !pageShifts.isEmpty();
+            out.write(json ? "[" : addresses
+                ? "trace,references,algorithm,page_size,frames,faults,hit_ratio,tlb_hit_ratio,page_walks,page_table_bytes,emat_ns\n"
+                : prefetchers != null
+                ? "trace,references,algorithm,prefetcher,frames,faults,hit_ratio,prefetched,useful,pollution,accuracy,coverage\n"
+                : writeBack
+                ? "trace,references,writes,algorithm,frames,faults,hit_ratio,write_backs,flushed_pages,io_ops,io_ns\n"
+                : sampleRate > 0
+                ? "trace,references,sample_rate,algorithm,frames,scaled_frames,faults,hit_ratio,faults_ci95_low,faults_ci95_high"
+                    + (verify ? ",exact_faults,miss_ratio_error\n" : "\n")
+                : runs > 0
+                ? "trace,references,algorithm,frames,faults,hit_ratio,runs,faults_mean,faults_variance,faults_ci95_low,faults_ci95_high\n"
+                : "trace,references,algorithm,frames,faults,hit_ratio\n");
+            if (sampleRate > 0 && progress != null) {
+                int smallest = Integer.MAX_VALUE;
+                for (int[] range : frameRanges) smallest = Math.min(smallest, range[0]);
+                if (smallest * sampleRate < 1) {
+                    progress.printf("Frame counts below %d scale to less than one sampled frame; their estimates are biased%n",
+                        (long) Math.ceil(1 / sampleRate));
+                }
+            }
+            boolean first = true;
+            List<String> names = new ArrayList<>();
+            List<Callable<TraceSource>> openers = new ArrayList<>();
+            for (Path file : traces) {
+                names.add(file.toString());
+                openers.add(() -> TraceFiles.open(file, addresses));
+            }
+            for (String spec : workloads) {
+                names.add(spec);
+                openers.add(() -> Workloads.open(spec));
+            }
+            for (int n = 0; n < names.size(); n++) {
+                String name = names.get(n);
+                long start = System.nanoTime();
+                long references;
+                if (sampleRate > 0) {
+                    int[] trace = verify ? read(name, openers.get(n), source -> TraceFiles.readAll(source, maxReferences)) : null;
+                    SampledSweep sweep = new SampledSweep(algorithms, frameList(), sampleRate, sampleSets, seed);
+                    SampledSweep.Result result = read(name, trace != null ? () -> new ArrayTraceSource(trace) : openers.get(n),
+                        source -> sweep.run(source, pool, null));
+                    first = sample(out, json, first, name, sweep, result, trace, pool, progress);
+                    references = result.references();
+                } else {
+                    BitSet writes = writeBack ? new BitSet() : null;
+                    int[] trace = read(name, openers.get(n), source -> TraceFiles.readAll(source, maxReferences, writes));
+                    first = addresses ? translate(out, json, first, name, trace, pool)
+                        : prefetchers != null ? prefetch(out, json, first, name, trace, pool)
+                        : writeBack ? writeBack(out, json, first, name, trace, writes, pool)
+                        : sweep(out, json, first, name, trace, pool);
+                    references = trace.length;
+                }
+                out.flush();
+                if (progress != null) {
+                    progress.printf("%s: %,d references, %.1f s%n", name, references, (System.nanoTime() - start) / 1e9);
+                }
+            }
+            if (json) out.write(first ? "]\n" : "\n]\n");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private interface Reader<T> {
+        T read(TraceSource source) throws IOException;
+    }
+
+    /** Opens an input and reads it, naming the input in any error. */
+    private static <T> T read(String name, Callable<TraceSource> opener, Reader<T> reader) throws IOException {
+        try (TraceSource source = opener.call()) {
+            return reader.read(source);
+        } catch (NoSuchFileException e) {
+            throw new IOException(name + ": no such file", e);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IOException(name + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int[] frameList() {
+        int count = 0;
+        for (int[] range : frameRanges) count += range[1] - range[0] + 1;
+        int[] frames = new int[count];
+        int i = 0;
+        for (int[] range : frameRanges) {
+            for (int f = range[0]; f <= range[1]; f++) frames[i++] = f;
+        }
+        return frames;
+    }
+
+    /**
+     * Writes one row of estimates per (algorithm, frames) of a sampled run and
+     * returns the updated first-row flag. Given the whole trace, it also runs
+     * it exactly and reports the miss-ratio error of the estimates.
+     */
+    private boolean sample(Writer out, boolean json, boolean first, String name, SampledSweep sweep,
+            SampledSweep.Result result, int[] trace, ForkJoinPool pool, PrintStream progress) throws IOException {
+        long references = result.references();
+        long[][] exact = null;
+        if (trace != null) {
+            exact = new long[algorithms.length][sweep.columns()];
+            int offset = 0;
+            for (int[] range : frameRanges) {
+                FaultSweep full = new FaultSweep(trace, algorithms, range[0], range[1]);
+                full.setSeed(seed);
+                long[][] faults = full.run(pool, null);
+                for (int a = 0; a < algorithms.length; a++) System.arraycopy(faults[a], 0, exact[a], offset, full.columns());
+                offset += full.columns();
+            }
+        }
+        double errorSum = 0, errorMax = 0;
+        for (int a = 0; a < algorithms.length; a++) {
+            for (int column = 0; column < sweep.columns(); column++) {
+                MonteCarlo.Result estimate = result.estimate(a, column);
+                long f = Math.round(estimate.mean());
+                double hitRatio = references == 0 ? 0 : (double) (references - f) / references;
+                double error = exact == null || references == 0 ? 0 : (double) (f - exact[a][column]) / references;
+                errorSum += Math.abs(error);
+                errorMax = Math.max(errorMax, Math.abs(error));
+                Row row = new Row().add("trace", name).add("references", references).add("sampleRate", sweep.rate())
+                    .add("algorithm", algorithms[a]).add("frames", sweep.frames(column)).add("scaledFrames", sweep.scaledFrames(column))
+                    .add("faults", f).add("hitRatio", hitRatio).add("faultsCi95Low", estimate.low()).add("faultsCi95High", estimate.high());
+                if (exact != null) row.add("exactFaults", exact[a][column]).add("missRatioError", error);
+                first = row.write(out, json, first);
+            }
+        }
+        if (exact != null && progress != null) {
+            progress.printf("%s: miss ratio error %.5f mean, %.5f max over %d estimates%n",
+                name, errorSum / (algorithms.length * sweep.columns()), errorMax, algorithms.length * sweep.columns());
+        }
+        return first;
+    }
+
+    /** Writes one row per (algorithm, frames) of a page-number trace and returns the updated first-row flag. */
+    private boolean sweep(Writer out, boolean json, boolean first, String name, int[] trace, ForkJoinPool pool) throws IOException {
+        for (int[] range : frameRanges) {
+            FaultSweep sweep = new FaultSweep(trace, algorithms, range[0], range[1]);
+            sweep.setSeed(seed);
+            long[][] faults = sweep.run(pool, null);
+            for (int a = 0; a < algorithms.length; a++) {
+                for (int column = 0; column < sweep.columns(); column++) {
+                    long f = faults[a][column];
+                    double hitRatio = trace.length == 0 ? 0 : (double) (trace.length - f) / trace.length;
+                    MonteCarlo.Result mc = runs == 0 ? null
+                        : Policies.randomized(algorithms[a]) ? new MonteCarlo(trace, algorithms[a], sweep.frames(column), runs, seed).run(pool)
+                        : new MonteCarlo.Result(f);
+                    Row row = new Row().add("trace", name).add("references", trace.length).add("algorithm", algorithms[a])
+                        .add("frames", sweep.frames(column)).add("faults", f).add("hitRatio", hitRatio);
+                    if (mc != null) {
+                        row.add("runs", mc.runs()).add("faultsMean", mc.mean()).add("faultsVariance", mc.variance())
+                            .add("faultsCi95Low", mc.low()).add("faultsCi95High", mc.high());
+                    }
+                    first = row.write(out, json, first);
+                }
+            }
+        }
+        return first;
+    }
+
+    /** Writes one row per (page size, algorithm) of an address trace and returns the updated first-row flag. */
+    private boolean translate(Writer out, boolean json, boolean first, String name, int[] trace, ForkJoinPool pool) throws IOException {
+        for (int shift : pageShifts) {
+            int[] vpns = TranslationSimulation.pageNumbers(trace, shift);
+            int frames = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memory >> shift));
+            List<Callable<TranslationSimulation.Result>> cells = new ArrayList<>();
+            for (String algorithm : algorithms) {
+                cells.add(() -> new TranslationSimulation(Policies.create(algorithm, frames, vpns, seed), new PageTable(shift, levelBits),
+                    new Tlb(tlbEntries, tlbWays, tlbPolicy), latencies).run(vpns));
+            }
+            List<Future<TranslationSimulation.Result>> results = pool.invokeAll(cells);
+            for (int a = 0; a < algorithms.length; a++) {
+                TranslationSimulation.Result r;
+                try {
+                    r = results.get(a).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException("Translation of " + name + " failed", e);
+                }
+                long f = r.faults();
+                double hitRatio = trace.length == 0 ? 0 : (double) (trace.length - f) / trace.length;
+                double tlbHitRatio = trace.length == 0 ? 0 : r.tlbHitRatio();
+                double emat = trace.length == 0 ? 0 : r.effectiveAccessTime();
+                first = new Row().add("trace", name).add("references", trace.length).add("algorithm", algorithms[a])
+                    .add("pageSize", 1L << shift).add("frames", frames).add("faults", f).add("hitRatio", hitRatio)
+                    .add("tlbHitRatio", tlbHitRatio).add("pageWalks", r.walks()).add("pageTableBytes", r.tableBytes())
+                    .add("ematNanos", emat).write(out, json, first);
+            }
+        }
+        return first;
+    }
+
+    /** Writes one row per (algorithm, frames) with write-back I/O and returns the updated first-row flag. */
+    private boolean writeBack(Writer out, boolean json, boolean first, String name, int[] trace, BitSet writes, ForkJoinPool pool) throws IOException {
+        for (int[] range : frameRanges) {
+            List<Callable<WriteBackSimulation.Result>> cells = new ArrayList<>();
+            for (String algorithm : algorithms) {
+                for (int frames = range[0]; frames <= range[1]; frames++) {
+                    int f = frames;
+                    cells.add(() -> {
+                        WriteBackSimulation simulation = new WriteBackSimulation((FramePolicy) Policies.create(algorithm, f, trace, seed), ioCost);
+                        simulation.setFlusher(flushInterval, flushBatch);
+                        return simulation.run(trace, writes);
+                    });
+                }
+            }
+            List<Future<WriteBackSimulation.Result>> results = pool.invokeAll(cells);
+            int cell = 0;
+            for (String algorithm : algorithms) {
+                for (int frames = range[0]; frames <= range[1]; frames++) {
+                    WriteBackSimulation.Result r;
+                    try {
+                        r = results.get(cell++).get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new IllegalStateException("Write-back run of " + name + " failed", e);
+                    }
+                    double hitRatio = trace.length == 0 ? 0 : r.hitRatio();
+                    first = new Row().add("trace", name).add("references", trace.length).add("writes", r.writes())
+                        .add("algorithm", algorithm).add("frames", frames).add("faults", r.faults()).add("hitRatio", hitRatio)
+                        .add("writeBacks", r.writeBacks()).add("flushedPages", r.flushedPages())
+                        .add("ioOperations", r.ioOperations()).add("ioNanos", r.ioTime()).write(out, json, first);
+                }
+            }
+        }
+        return first;
+    }
+
+    /** Writes one row per (algorithm, prefetcher, frames) and returns the updated first-row flag. */
+    private boolean prefetch(Writer out, boolean json, boolean first, String name, int[] trace, ForkJoinPool pool) throws IOException {
+        for (int[] range : frameRanges) {
+            List<Callable<PrefetchSimulation.Result>> cells = new ArrayList<>();
+            for (String algorithm : algorithms) {
+                for (String prefetcher : prefetchers) {
+                    for (int frames = range[0]; frames <= range[1]; frames++) {
+                        int f = frames;
+                        cells.add(() -> {
+                            FramePolicy policy = (FramePolicy) Policies.create(algorithm, f, trace, seed);
+                            return new PrefetchSimulation(policy, prefetcher.equals("none") ? null : Prefetchers.create(prefetcher, f)).run(trace);
+                        });
+                    }
+                }
+            }
+            List<Future<PrefetchSimulation.Result>> results = pool.invokeAll(cells);
+            int cell = 0;
+            for (String algorithm : algorithms) {
+                for (String prefetcher : prefetchers) {
+                    for (int frames = range[0]; frames <= range[1]; frames++) {
+                        PrefetchSimulation.Result r;
+                        try {
+                            r = results.get(cell++).get();
+                        } catch (InterruptedException | ExecutionException e) {
+                            throw new IllegalStateException("Prefetch run of " + name + " failed", e);
+                        }
+                        double hitRatio = trace.length == 0 ? 0 : r.hitRatio();
+                        double accuracy = r.prefetched() == 0 ? 0 : r.accuracy();
+                        double coverage = trace.length == 0 ? 0 : r.coverage();
+                        first = new Row().add("trace", name).add("references", trace.length).add("algorithm", algorithm)
+                            .add("prefetcher", prefetcher).add("frames", frames).add("faults", r.faults()).add("hitRatio", hitRatio)
+                            .add("prefetched", r.prefetched()).add("useful", r.useful()).add("pollution", r.pollution())
+                            .add("accuracy", accuracy).add("coverage", coverage).write(out, json, first);
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * One result row as ordered name/value pairs, written as a JSON object
+     * keyed by the names or as CSV values in the same order; the CSV header is
+     * written separately. String values are quoted for either format.
+     */
+    private static final class Row {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+
+        Row add(String name, Object value) {
+            names.add(name);
+            values.add(value);
+            return this;
+        }
+
+        /** Writes the row after any earlier ones and returns the updated, now false, first-row flag. */
+        boolean write(Writer out, boolean json, boolean first) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            if (json) sb.append(first ? "\n  {" : ",\n  {");
+            for (int i = 0; i < names.size(); i++) {
+                Object v = values.get(i);
+                if (i > 0) sb.append(json ? ", " : ",");
+                if (json) sb.append(Escaping.json(names.get(i))).append(": ");
+                sb.append(!(v instanceof String) ? String.valueOf(v) : json ? Escaping.json((String) v) : Escaping.csv((String) v));
+            }
+            out.write(sb.append(json ? "}" : "\n").toString());
+            return false;
+        }
+    }
+}
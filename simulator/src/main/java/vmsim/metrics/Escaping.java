@@ -0,0 +1,31 @@
+package vmsim.metrics;
+
+/** Quoting for the strings written into JSON and CSV reports. */
+public final class Escaping {
+    private Escaping() { }
+
+    /** The string as a quoted JSON string literal. */
+    public static String json(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /** The string as a CSV field, quoted only when it holds a comma, quote or line break. */
+    public static String csv(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+}
@@ -0,0 +1,86 @@
+package vmsim.metrics;
+
+import java.util.Arrays;
+import vmsim.ReuseDistance;
+
+/**
+ * Counters for one policy over one pass. Misses are split the way the 3C
+ * model does for a fully associative cache of the same size: cold misses
+ * are first references, capacity misses have an LRU stack distance larger
+ * than the frame count, and the rest, which LRU with the same frames would
+ * have hit, count as conflict (policy) misses. The split needs the stack
+ * distances of the pass; without them only hits, misses and evictions count.
+ *
+ * <p>The simulation thread updates the fields without synchronisation, so a
+ * JMX read during a run may see values a few references old.
+ */
+public final class PolicyMetrics implements PolicyMetricsMBean {
+    private final String algorithm;
+    private final int frames;
+    private final int window;
+    private long hits, misses, evictions;
+    private long cold, capacity, conflict;
+    private int windowFill, windowHits;
+    private int[] series = new int[64];
+    private int windows;
+
+    PolicyMetrics(String algorithm, int frames, int window) {
+        this.algorithm = algorithm;
+        this.frames = frames;
+        this.window = window;
+    }
+
+    /** Records one access; {@code distance} is the reference's stack distance or {@link RunMetrics#NO_DISTANCE}. */
+    public void record(boolean fault, boolean evicted, int distance) {
+        if (fault) {
+            misses++;
+            if (evicted) evictions++;
+            if (distance == ReuseDistance.COLD) {
+                cold++;
+            } else if (distance > frames) {
+                capacity++;
+            } else if (distance != RunMetrics.NO_DISTANCE) {
+                conflict++;
+            }
+        } else {
+            hits++;
+            windowHits++;
+        }
+        if (++windowFill == window) {
+            if (windows == series.length) series = Arrays.copyOf(series, windows * 2);
+            series[windows++] = windowHits;
+            windowFill = windowHits = 0;
+        }
+    }
+
+    @Override public String getAlgorithm() { return algorithm; }
+    @Override public int getFrames() { return frames; }
+    @Override public long getAccesses() { return hits + misses; }
+    @Override public long getHits() { return hits; }
+    @Override public long getMisses() { return misses; }
+    @Override public long getEvictions() { return evictions; }
+    @Override public long getColdMisses() { return cold; }
+    @Override public long getCapacityMisses() { return capacity; }
+    @Override public long getConflictMisses() { return conflict; }
+
+    @Override
+    public double getHitRatio() {
+        long accesses = hits + misses;
+        return accesses == 0 ? Double.NaN : (double) hits / accesses;
+    }
+
+    @Override
+    public double getWindowHitRatio() {
+        int n = windows;
+        return n == 0 ? Double.NaN : (double) series[n - 1] / window;
+    }
+
+    public int window() { return window; }
+
+    /** Hit ratio of every completed window of {@link #window()} references, in order. */
+    public double[] windowHitRatios() {
+        double[] ratios = new double[windows];
+        for (int i = 0; i < ratios.length; i++) ratios[i] = (double) series[i] / window;
+        return ratios;
+    }
+}
@@ -0,0 +1,27 @@
+package vmsim.metrics;
+
+/** JMX view of one policy's counters; see {@link PolicyMetrics}. */
+public interface PolicyMetricsMBean {
+    String getAlgorithm();
+
+    int getFrames();
+
+    long getAccesses();
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    long getColdMisses();
+
+    long getCapacityMisses();
+
+    long getConflictMisses();
+
+    double getHitRatio();
+
+    /** Hit ratio of the last completed window, or NaN before the first one closes. */
+    double getWindowHitRatio();
+}
@@ -0,0 +1,261 @@
+package vmsim.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import vmsim.ReplacementPolicy;
+import vmsim.ReuseDistance;
+
+/**
+ * Instrumentation for a simulation run: a {@link PolicyMetrics} per policy,
+ * a log2 histogram of the trace's LRU stack distances, and wall-clock and
+ * allocation rates. Fill it by passing it to
+ * {@code Simulation.countFaults(policies, source, metrics)}; one instance may
+ * cover several passes over the same trace.
+ *
+ * <p>Stack distances cost O(log distinct pages) per reference, shared by all
+ * policies of a pass; without them the per-access cost is a few counter
+ * increments, cheap enough to leave on.
+ */
+public final class RunMetrics implements RunMetricsMBean {
+    public static final int DEFAULT_WINDOW = 4096;
+    /** Distance reported for every reference when distances are off. */
+    public static final int NO_DISTANCE = 0;
+
+    private final int window;
+    private final ReuseDistance distances;
+    private final long[] histogram = new long[32];
+    private final List<PolicyMetrics> policies = new ArrayList<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private MBeanServer server;
+
+    private long references, accesses;
+    private long elapsedNanos, allocatedBytes;
+    private long passStart, passAllocStart, passElapsed, passAllocated;
+
+    public RunMetrics() {
+        this(DEFAULT_WINDOW, true);
+    }
+
+    /**
+     * @param window    references per point of the hit-ratio series
+     * @param distances whether to track stack distances for the miss split and histogram
+     */
+    public RunMetrics(int window, boolean distances) {
+        if (window < 1) throw new IllegalArgumentException("window must be positive: " + window);
+        this.window = window;
+        this.distances = distances ? new ReuseDistance() : null;
+    }
+
+    /** Starts a pass over the trace for these policies; called by the simulation loop. */
+    public PolicyMetrics[] startPass(ReplacementPolicy[] passPolicies) {
+        PolicyMetrics[] metrics = new PolicyMetrics[passPolicies.length];
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i] = new PolicyMetrics(passPolicies[i].name(), passPolicies[i].capacity(), window);
+            policies.add(metrics[i]);
+            if (server != null) register(metrics[i]);
+        }
+        if (distances != null) {
+            distances.reset();
+            Arrays.fill(histogram, 0);
+        }
+        passStart = System.nanoTime();
+        passAllocStart = threadAllocatedBytes();
+        passElapsed = passAllocated = 0;
+        return metrics;
+    }
+
+    /** Fills {@code out} with the stack distance of each reference in the batch. */
+    public void distances(int[] batch, int n, int[] out) {
+        if (distances == null) {
+            Arrays.fill(out, 0, n, NO_DISTANCE);
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            int d = distances.record(batch[i]);
+            out[i] = d;
+            histogram[d == ReuseDistance.COLD ? 0 : 32 - Integer.numberOfLeadingZeros(d)]++;
+        }
+    }
+
+    /** Adds a finished batch to the throughput figures. */
+    public void batchDone(int n, int policyCount) {
+        references += n;
+        accesses += (long) n * policyCount;
+        long elapsed = System.nanoTime() - passStart;
+        elapsedNanos += elapsed - passElapsed;
+        passElapsed = elapsed;
+        if (passAllocStart >= 0) {
+            long allocated = threadAllocatedBytes() - passAllocStart;
+            allocatedBytes += allocated - passAllocated;
+            passAllocated = allocated;
+        }
+    }
+
+    public List<PolicyMetrics> policies() { return policies; }
+
+    public int window() { return window; }
+
+    /** Counts per log2 bucket: index 0 holds cold references, index b distances in [2^(b-1), 2^b). */
+    public long[] reuseHistogram() { return histogram.clone(); }
+
+    @Override public long getReferences() { return references; }
+    @Override public long getAccesses() { return accesses; }
+    @Override public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+    @Override
+    public double getAccessesPerSecond() {
+        return elapsedNanos == 0 ? Double.NaN : accesses * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return passAllocStart < 0 ? -1 : allocatedBytes;
+    }
+
+    @Override
+    public double getAllocatedBytesPerSecond() {
+        return passAllocStart < 0 || elapsedNanos == 0 ? Double.NaN : allocatedBytes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public long getDistinctPages() {
+        return distances == null ? -1 : distances.distinctPages();
+    }
+
+    private static long threadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) return -1;
+        return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Registers this run as {@code vmsim:type=Run} and every policy, including
+     * those of later passes, as {@code vmsim:type=Policy,algorithm=...}.
+     */
+    public void register(MBeanServer mbeans) throws JMException {
+        unregister();
+        server = mbeans;
+        ObjectName name = new ObjectName("vmsim:type=Run");
+        mbeans.registerMBean(this, name);
+        registered.add(name);
+        for (PolicyMetrics metrics : policies) register(metrics);
+    }
+
+    public void register() throws JMException {
+        register(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    private void register(PolicyMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName("vmsim:type=Policy,algorithm=" + ObjectName.quote(metrics.getAlgorithm()));
+            // A second pass for the same algorithm takes over its name.
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(metrics, name);
+            registered.add(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics for " + metrics.getAlgorithm(), e);
+        }
+    }
+
+    public void unregister() throws JMException {
+        if (server == null) return;
+        for (ObjectName name : registered) {
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        }
+        registered.clear();
+        server = null;
+    }
+
+    /** Writes JSON, or CSV when the file name ends in .csv. */
+    public void save(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                writeCsv(out);
+            } else {
+                writeJson(out);
+            }
+        }
+    }
+
+    /** One row per policy with its counters. */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("algorithm,frames,accesses,hits,misses,evictions,cold_misses,capacity_misses,conflict_misses,hit_ratio\n");
+        for (PolicyMetrics m : policies) {
+            out.append(Escaping.csv(m.getAlgorithm())).append(',')
+                .append(String.valueOf(m.getFrames())).append(',')
+                .append(String.valueOf(m.getAccesses())).append(',')
+                .append(String.valueOf(m.getHits())).append(',')
+                .append(String.valueOf(m.getMisses())).append(',')
+                .append(String.valueOf(m.getEvictions())).append(',')
+                .append(String.valueOf(m.getColdMisses())).append(',')
+                .append(String.valueOf(m.getCapacityMisses())).append(',')
+                .append(String.valueOf(m.getConflictMisses())).append(',')
+                .append(number(m.getHitRatio())).append('\n');
+        }
+    }
+
+    /** The run totals, the reuse histogram and per policy the counters and hit-ratio series. */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\n");
+        out.append("  \"references\": ").append(String.valueOf(references)).append(",\n");
+        out.append("  \"accesses\": ").append(String.valueOf(accesses)).append(",\n");
+        out.append("  \"elapsedSeconds\": ").append(number(getElapsedSeconds())).append(",\n");
+        out.append("  \"accessesPerSecond\": ").append(number(getAccessesPerSecond())).append(",\n");
+        out.append("  \"allocatedBytes\": ").append(String.valueOf(getAllocatedBytes())).append(",\n");
+        out.append("  \"allocatedBytesPerSecond\": ").append(number(getAllocatedBytesPerSecond())).append(",\n");
+        out.append("  \"distinctPages\": ").append(String.valueOf(getDistinctPages())).append(",\n");
+        out.append("  \"reuseDistanceHistogram\": {\"cold\": ").append(String.valueOf(histogram[0])).append(", \"buckets\": [");
+        int last = histogram.length - 1;
+        while (last > 0 && histogram[last] == 0) last--;
+        for (int b = 1; b <= last; b++) {
+            if (b > 1) out.append(", ");
+            out.append("{\"from\": ").append(String.valueOf(1L << (b - 1)))
+                .append(", \"to\": ").append(String.valueOf((1L << b) - 1))
+                .append(", \"count\": ").append(String.valueOf(histogram[b])).append('}');
+        }
+        out.append("]},\n");
+        out.append("  \"window\": ").append(String.valueOf(window)).append(",\n");
+        out.append("  \"policies\": [");
+        for (int i = 0; i < policies.size(); i++) {
+            PolicyMetrics m = policies.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            out.append("    {\"algorithm\": ").append(Escaping.json(m.getAlgorithm()))
+                .append(", \"frames\": ").append(String.valueOf(m.getFrames()))
+                .append(", \"accesses\": ").append(String.valueOf(m.getAccesses()))
+                .append(", \"hits\": ").append(String.valueOf(m.getHits()))
+                .append(", \"misses\": ").append(String.valueOf(m.getMisses()))
+                .append(", \"evictions\": ").append(String.valueOf(m.getEvictions()))
+                .append(", \"coldMisses\": ").append(String.valueOf(m.getColdMisses()))
+                .append(", \"capacityMisses\": ").append(String.valueOf(m.getCapacityMisses()))
+                .append(", \"conflictMisses\": ").append(String.valueOf(m.getConflictMisses()))
+                .append(", \"hitRatio\": ").append(number(m.getHitRatio()))
+                .append(", \"windowHitRatios\": [");
+            double[] series = m.windowHitRatios();
+            for (int w = 0; w < series.length; w++) {
+                if (w > 0) out.append(", ");
+                out.append(number(series[w]));
+            }
+            out.append("]}");
+        }
+        out.append(policies.isEmpty() ? "]\n" : "\n  ]\n");
+        out.append("}\n");
+    }
+
+    private static String number(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "null" : String.valueOf(v);
+    }
+}
@@ -0,0 +1,21 @@
+package vmsim.metrics;
+
+/** JMX view of a run's throughput; see {@link RunMetrics}. */
+public interface RunMetricsMBean {
+    /** References read from the trace. */
+    long getReferences();
+
+    /** Policy accesses simulated: references times the policies fed from them. */
+    long getAccesses();
+
+    double getElapsedSeconds();
+
+    double getAccessesPerSecond();
+
+    /** Heap bytes allocated by the simulating thread, or -1 where the JVM cannot tell. */
+    long getAllocatedBytes();
+
+    double getAllocatedBytesPerSecond();
+
+    long getDistinctPages();
+}
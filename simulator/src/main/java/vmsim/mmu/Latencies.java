@@ -0,0 +1,33 @@
+package vmsim.mmu;
+
+/**
+ * Costs of the steps of one memory access, in nanoseconds: the TLB lookup
+ * every access pays, the memory access itself, each page-table level a walk
+ * reads, and the service time of a page fault.
+ */
+public final class Latencies {
+    /** Roughly a DRAM system swapping to an SSD. */
+    public static final Latencies DEFAULT = new Latencies(1, 100, 100, 100_000);
+
+    private final double tlb, memory, walk, fault;
+
+    public Latencies(double tlb, double memory, double walk, double fault) {
+        if (!(tlb >= 0 && memory >= 0 && walk >= 0 && fault >= 0)) {
+            throw new IllegalArgumentException("Latencies must not be negative");
+        }
+        this.tlb = tlb;
+        this.memory = memory;
+        this.walk = walk;
+        this.fault = fault;
+    }
+
+    public double tlb() { return tlb; }
+    public double memory() { return memory; }
+    public double walk() { return walk; }
+    public double fault() { return fault; }
+
+    @Override
+    public String toString() {
+        return "tlb=" + tlb + ",memory=" + memory + ",walk=" + walk + ",fault=" + fault;
+    }
+}
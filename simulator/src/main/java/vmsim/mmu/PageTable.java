@@ -0,0 +1,62 @@
+package vmsim.mmu;
+
+import vmsim.IntIntMap;
+
+/**
+ * Radix page table over a 32-bit virtual address space. Each level below
+ * the root resolves {@code bitsPerLevel} bits of the page number and the root
+ * takes what is left, so larger pages need fewer levels, the way huge pages
+ * end an x86 walk early. Tables are created when a walk first reaches them,
+ * which gives the table's memory footprint for the pages the trace touched.
+ */
+public final class PageTable {
+    public static final int ADDRESS_BITS = 32;
+    public static final int ENTRY_BYTES = 4;
+
+    private final int pageShift, bitsPerLevel, levels, rootBits;
+    private final IntIntMap[] tables;
+    private boolean rootAllocated;
+
+    public PageTable(int pageShift, int bitsPerLevel) {
+        if (pageShift < 10 || pageShift > 30) throw new IllegalArgumentException("Page size must be between 1 KiB and 1 GiB: 2^" + pageShift);
+        if (bitsPerLevel < 1 || bitsPerLevel > 16) throw new IllegalArgumentException("Invalid bits per level: " + bitsPerLevel);
+        this.pageShift = pageShift;
+        this.bitsPerLevel = bitsPerLevel;
+        int vpnBits = ADDRESS_BITS - pageShift;
+        levels = Math.max(1, (vpnBits + bitsPerLevel - 1) / bitsPerLevel);
+        rootBits = vpnBits - (levels - 1) * bitsPerLevel;
+        tables = new IntIntMap[levels];
+        for (int l = 1; l < levels; l++) tables[l] = new IntIntMap(64);
+    }
+
+    /** Walks the table for a page, creating missing tables, and returns the memory accesses it took. */
+    public int walk(int vpn) {
+        rootAllocated = true;
+        for (int l = 1; l < levels; l++) {
+            int table = vpn >>> (bitsPerLevel * (levels - l));
+            if (!tables[l].containsKey(table)) tables[l].put(table, 0);
+        }
+        return levels;
+    }
+
+    public int pageShift() { return pageShift; }
+    public int levels() { return levels; }
+
+    /** Tables created so far, root included. */
+    public int tables() {
+        if (!rootAllocated) return 0;
+        int count = 1;
+        for (int l = 1; l < levels; l++) count += tables[l].size();
+        return count;
+    }
+
+    public long bytes() {
+        if (!rootAllocated) return 0;
+        return ENTRY_BYTES * ((1L << rootBits) + ((long) (tables() - 1) << bitsPerLevel));
+    }
+
+    public void reset() {
+        rootAllocated = false;
+        for (int l = 1; l < levels; l++) tables[l].clear();
+    }
+}
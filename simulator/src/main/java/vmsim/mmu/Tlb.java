@@ -0,0 +1,53 @@
+package vmsim.mmu;
+
+import java.util.SplittableRandom;
+import vmsim.Policies;
+import vmsim.RandomPolicy;
+import vmsim.ReplacementPolicy;
+
+/**
+ * Set-associative translation lookaside buffer. A virtual page number picks
+ * its set by its low bits modulo the set count and is stored there by tag;
+ * each set is a small instance of any replacement policy that does not need
+ * the future, so one entry count can be tried as direct mapped, n-way or
+ * fully associative with the policies the simulator already has.
+ */
+public final class Tlb {
+    private final int entries, ways, sets;
+    private final String policy;
+    private final ReplacementPolicy[] table;
+
+    public Tlb(int entries, int ways, String policy) {
+        if (entries < 1 || ways < 1 || entries % ways != 0) {
+            throw new IllegalArgumentException("Invalid TLB geometry: " + entries + " entries, " + ways + " ways");
+        }
+        if ("Optimal".equals(policy)) throw new IllegalArgumentException("A TLB cannot use Optimal replacement");
+        this.entries = entries;
+        this.ways = ways;
+        this.sets = entries / ways;
+        this.policy = policy;
+        table = new ReplacementPolicy[sets];
+        // Every set gets its own stream, so random replacement does not evict in lockstep across sets.
+        SplittableRandom seeds = new SplittableRandom(RandomPolicy.DEFAULT_SEED);
+        for (int s = 0; s < sets; s++) table[s] = Policies.create(policy, ways, null, seeds.nextLong());
+    }
+
+    /** Looks the page up and, on a miss, loads its translation. Returns true on a hit. */
+    public boolean access(int vpn) {
+        return !table[Integer.remainderUnsigned(vpn, sets)].access(Integer.divideUnsigned(vpn, sets));
+    }
+
+    public void reset() {
+        for (ReplacementPolicy set : table) set.reset();
+    }
+
+    public int entries() { return entries; }
+    public int ways() { return ways; }
+    public int sets() { return sets; }
+    public String policy() { return policy; }
+
+    @Override
+    public String toString() {
+        return entries + " entries, " + (sets == 1 ? "fully associative" : ways + "-way") + ", " + policy;
+    }
+}
@@ -0,0 +1,91 @@
+package vmsim.mmu;
+
+import vmsim.ReplacementPolicy;
+
+/**
+ * Runs virtual addresses through a TLB, a page table and the frames of a
+ * replacement policy, and prices the outcome as an effective memory access
+ * time. Every access pays the TLB lookup and the memory access; a TLB miss
+ * adds a walk of every page-table level, and a fault adds its service time.
+ *
+ * <p>A page evicted from memory keeps its TLB entry until the TLB replaces
+ * it, but a hit on such an entry counts as a miss, as it would after the
+ * shootdown that a real eviction triggers.
+ */
+public final class TranslationSimulation {
+    private final ReplacementPolicy memory;
+    private final PageTable pageTable;
+    private final Tlb tlb;
+    private final Latencies latencies;
+
+    /** The policy sees page numbers at the page table's page size; see {@link #pageNumbers}. */
+    public TranslationSimulation(ReplacementPolicy memory, PageTable pageTable, Tlb tlb, Latencies latencies) {
+        this.memory = memory;
+        this.pageTable = pageTable;
+        this.tlb = tlb;
+        this.latencies = latencies;
+    }
+
+    /** Splits 32-bit virtual addresses, read as unsigned, into page numbers. */
+    public static int[] pageNumbers(int[] addresses, int pageShift) {
+        int[] vpns = new int[addresses.length];
+        for (int i = 0; i < vpns.length; i++) vpns[i] = addresses[i] >>> pageShift;
+        return vpns;
+    }
+
+    public Result run(int[] vpns) {
+        long tlbHits = 0, faults = 0;
+        for (int vpn : vpns) {
+            boolean hit = tlb.access(vpn) && memory.slotOf(vpn) >= 0;
+            if (hit) {
+                tlbHits++;
+                memory.access(vpn);
+                continue;
+            }
+            pageTable.walk(vpn);
+            if (memory.access(vpn)) faults++;
+        }
+        return new Result(vpns.length, tlbHits, faults, pageTable.levels(), pageTable.tables(), pageTable.bytes(), latencies);
+    }
+
+    public static final class Result {
+        private final long references, tlbHits, faults;
+        private final int levels, tables;
+        private final long tableBytes;
+        private final Latencies latencies;
+
+        Result(long references, long tlbHits, long faults, int levels, int tables, long tableBytes, Latencies latencies) {
+            this.references = references;
+            this.tlbHits = tlbHits;
+            this.faults = faults;
+            this.levels = levels;
+            this.tables = tables;
+            this.tableBytes = tableBytes;
+            this.latencies = latencies;
+        }
+
+        public long references() { return references; }
+        public long tlbHits() { return tlbHits; }
+        public long faults() { return faults; }
+
+        /** Page-table walks, one per TLB miss. */
+        public long walks() { return references - tlbHits; }
+
+        public int levels() { return levels; }
+        public int tables() { return tables; }
+        public long tableBytes() { return tableBytes; }
+
+        public double tlbHitRatio() {
+            return references == 0 ? Double.NaN : (double) tlbHits / references;
+        }
+
+        /** Mean nanoseconds per access under the run's latencies. */
+        public double effectiveAccessTime() {
+            if (references == 0) return Double.NaN;
+            double total = references * (latencies.tlb() + latencies.memory())
+                + (double) walks() * levels * latencies.walk()
+                + faults * latencies.fault();
+            return total / references;
+        }
+    }
+}
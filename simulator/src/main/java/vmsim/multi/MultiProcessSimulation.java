@@ -0,0 +1,382 @@
+package vmsim.multi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import vmsim.FramePolicy;
+import vmsim.IntIntMap;
+import vmsim.Policies;
+import vmsim.ReplacementPolicy;
+
+/**
+ * Several processes sharing one pool of frames. With {@link Scope#GLOBAL}
+ * replacement one policy holds every process's pages and a fault may evict
+ * another process's page; with {@link Scope#LOCAL} replacement each process
+ * has its own policy and only replaces its own pages, within the frames its
+ * {@link Allocator} grants it.
+ *
+ * <p>The trace runs in epochs of {@link #setEpoch} references. Within an
+ * epoch the processes are independent: each one's working set, and under
+ * local replacement its policy, runs as a separate task on the pool, next to
+ * the shared policy under global replacement. Between epochs the allocator
+ * moves frames between processes, evicting with the process's own policy
+ * where an allocation shrinks.
+ *
+ * <p>An epoch counts as thrashing when the working sets together need more
+ * frames than there are and the epoch's fault rate is at least
+ * {@link #setThrashingFaultRate}.
+ */
+public final class MultiProcessSimulation {
+    public enum Scope { GLOBAL, LOCAL }
+
+    /** How local replacement splits the frames; global replacement ignores it. */
+    public enum Allocator {
+        /** The same share for every process, fixed for the whole run. */
+        EQUAL,
+        /** Grows the share of processes above the upper fault rate from those below the lower one. */
+        PAGE_FAULT_FREQUENCY,
+        /** Shares proportional to the working-set sizes at the end of each epoch. */
+        WORKING_SET
+    }
+
+    public static final int DEFAULT_EPOCH = 1024;
+    public static final int DEFAULT_WINDOW = 256;
+
+    private final ProcessTrace trace;
+    private final String algorithm;
+    private final int frames;
+    private final Scope scope;
+    private final Allocator allocator;
+    private int epoch = DEFAULT_EPOCH;
+    private int window = DEFAULT_WINDOW;
+    private double lowFaultRate = 0.02, highFaultRate = 0.1;
+    private double thrashingFaultRate = 0.25;
+
+    public MultiProcessSimulation(ProcessTrace trace, String algorithm, int frames, Scope scope, Allocator allocator) {
+        if (frames < 1) throw new IllegalArgumentException("frames must be positive: " + frames);
+        if (scope == Scope.LOCAL && frames < trace.processes()) {
+            throw new IllegalArgumentException("Local replacement needs a frame per process: " + frames + " < " + trace.processes());
+        }
+        this.trace = trace;
+        this.algorithm = algorithm;
+        this.frames = frames;
+        this.scope = scope;
+        this.allocator = allocator;
+    }
+
+    /** References between two rebalancing steps and thrashing checks. */
+    public void setEpoch(int epoch) {
+        if (epoch < 1) throw new IllegalArgumentException("epoch must be positive: " + epoch);
+        this.epoch = epoch;
+    }
+
+    /** The working-set window, in references of the process itself. */
+    public void setWorkingSetWindow(int window) {
+        if (window < 1) throw new IllegalArgumentException("window must be positive: " + window);
+        this.window = window;
+    }
+
+    /** Fault rates per epoch below which a process gives up frames and above which it asks for more. */
+    public void setFaultRateBounds(double low, double high) {
+        if (!(low >= 0 && low <= high && high <= 1)) throw new IllegalArgumentException("Invalid fault rate bounds: " + low + ", " + high);
+        this.lowFaultRate = low;
+        this.highFaultRate = high;
+    }
+
+    public void setThrashingFaultRate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) throw new IllegalArgumentException("Invalid fault rate: " + rate);
+        this.thrashingFaultRate = rate;
+    }
+
+    /** A short label such as "Local LRU (working set)". */
+    public String label() {
+        if (scope == Scope.GLOBAL) return "Global " + algorithm;
+        String how = allocator == Allocator.EQUAL ? "equal" : allocator == Allocator.PAGE_FAULT_FREQUENCY ? "PFF" : "working set";
+        return "Local " + algorithm + " (" + how + ")";
+    }
+
+    public Result run(ForkJoinPool pool) {
+        int n = trace.length(), procs = trace.processes();
+        // Pages of different processes are different pages: intern every (process, page) pair.
+        int[] ids = new int[n];
+        int[] owner = new int[Math.max(16, procs)];
+        IntIntMap[] interned = new IntIntMap[procs];
+        int[] lengths = new int[procs];
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            int p = trace.process(i);
+            if (interned[p] == null) interned[p] = new IntIntMap(64);
+            int id = interned[p].get(trace.page(i));
+            if (id < 0) {
+                id = distinct++;
+                interned[p].put(trace.page(i), id);
+                if (id == owner.length) owner = Arrays.copyOf(owner, id * 2);
+                owner[id] = p;
+            }
+            ids[i] = id;
+            lengths[p]++;
+        }
+        Process[] processes = new Process[procs];
+        for (int p = 0; p < procs; p++) processes[p] = new Process(lengths[p]);
+        for (int i = 0; i < n; i++) {
+            Process process = processes[trace.process(i)];
+            process.refs[process.length++] = ids[i];
+        }
+
+        int[] alloc = new int[procs];
+        Shared shared = null;
+        if (scope == Scope.GLOBAL) {
+            shared = new Shared(Policies.create(algorithm, frames, ids), ids, owner, processes);
+        } else {
+            for (int p = 0; p < procs; p++) alloc[p] = frames / procs + (p < frames % procs ? 1 : 0);
+            for (int p = 0; p < procs; p++) {
+                ReplacementPolicy policy = Policies.create(algorithm, frames, processes[p].refs);
+                if (!(policy instanceof FramePolicy)) throw new IllegalArgumentException(algorithm + " cannot run with a frame allocation");
+                processes[p].policy = (FramePolicy) policy;
+                processes[p].policy.setLimit(alloc[p]);
+            }
+        }
+
+        int[] counts = new int[procs];
+        int epochs = 0, thrashing = 0;
+        long firstThrashing = -1;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int start = 0; start < n; start += epoch) {
+            int end = (int) Math.min(n, (long) start + epoch);
+            Arrays.fill(counts, 0);
+            for (int i = start; i < end; i++) counts[trace.process(i)]++;
+            tasks.clear();
+            for (int p = 0; p < procs; p++) {
+                Process process = processes[p];
+                process.epochRefs = counts[p];
+                process.epochFaults = 0;
+                if (counts[p] > 0) tasks.add(ForkJoinTask.adapt(process::runEpoch));
+            }
+            if (shared != null) {
+                Shared s = shared;
+                int from = start;
+                tasks.add(ForkJoinTask.adapt(() -> s.run(from, end)));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+            long epochFaults = 0, demand = 0;
+            for (Process process : processes) {
+                epochFaults += process.epochFaults;
+                demand += process.workingSet.size();
+            }
+            epochs++;
+            if (demand > frames && epochFaults >= thrashingFaultRate * (end - start)) {
+                thrashing++;
+                if (firstThrashing < 0) firstThrashing = start;
+            }
+            if (scope == Scope.LOCAL && end < n) rebalance(processes, alloc);
+        }
+
+        Result result = new Result(procs, epochs, thrashing, firstThrashing);
+        for (int p = 0; p < procs; p++) {
+            Process process = processes[p];
+            result.pids[p] = trace.pid(p);
+            result.references[p] = process.length;
+            result.faults[p] = process.faults;
+            result.stolen[p] = process.stolen;
+            result.frames[p] = scope == Scope.GLOBAL ? shared.resident[p] : alloc[p];
+            result.meanWorkingSet[p] = process.workingSet.mean();
+        }
+        return result;
+    }
+
+    private void rebalance(Process[] processes, int[] alloc) {
+        int procs = processes.length;
+        int[] next = alloc.clone();
+        if (allocator == Allocator.PAGE_FAULT_FREQUENCY) {
+            int free = 0;
+            for (int p = 0; p < procs; p++) {
+                Process process = processes[p];
+                if (process.epochRefs > 0 && process.epochFaults < lowFaultRate * process.epochRefs && next[p] > 1) {
+                    int give = Math.min(next[p] - 1, Math.max(1, next[p] / 8));
+                    next[p] -= give;
+                    free += give;
+                }
+            }
+            // The freed frames go to the processes with the highest fault rates first.
+            boolean[] served = new boolean[procs];
+            while (free > 0) {
+                int worst = -1;
+                double worstRate = highFaultRate;
+                for (int p = 0; p < procs; p++) {
+                    Process process = processes[p];
+                    if (served[p] || process.epochRefs == 0) continue;
+                    double rate = (double) process.epochFaults / process.epochRefs;
+                    if (rate > worstRate) {
+                        worst = p;
+                        worstRate = rate;
+                    }
+                }
+                if (worst < 0) break;
+                served[worst] = true;
+                int take = Math.min(free, Math.max(1, next[worst] / 8));
+                next[worst] += take;
+                free -= take;
+            }
+            // Frames nobody asked for stay with the processes that released them.
+            for (int p = 0; p < procs && free > 0; p++) {
+                int back = Math.min(free, alloc[p] - next[p]);
+                if (back > 0) {
+                    next[p] += back;
+                    free -= back;
+                }
+            }
+        } else if (allocator == Allocator.WORKING_SET) {
+            int[] target = new int[procs];
+            long demand = 0;
+            for (int p = 0; p < procs; p++) {
+                target[p] = Math.max(1, processes[p].workingSet.size());
+                demand += target[p];
+            }
+            if (demand <= frames) {
+                System.arraycopy(target, 0, next, 0, procs);
+                share(next, target, demand, frames - (int) demand);
+            } else {
+                // Not every working set fits: everyone keeps a frame and the rest is shared by need.
+                int[] extra = new int[procs];
+                for (int p = 0; p < procs; p++) {
+                    next[p] = 1;
+                    extra[p] = target[p] - 1;
+                }
+                share(next, extra, demand - procs, frames - procs);
+            }
+        }
+        // Shrink first, so a grown process never holds frames that are still in use.
+        for (int p = 0; p < procs; p++) {
+            if (next[p] < alloc[p]) processes[p].stolen += processes[p].policy.setLimit(next[p]);
+        }
+        for (int p = 0; p < procs; p++) {
+            if (next[p] > alloc[p]) processes[p].policy.setLimit(next[p]);
+            alloc[p] = next[p];
+        }
+    }
+
+    /** Adds {@code pool} frames to {@code out} in proportion to the weights, the rounding rest in process order. */
+    private static void share(int[] out, int[] weights, long total, int pool) {
+        int given = 0;
+        for (int p = 0; p < out.length; p++) {
+            int extra = total == 0 ? 0 : (int) ((long) pool * weights[p] / total);
+            out[p] += extra;
+            given += extra;
+        }
+        for (int p = 0; given < pool; p = (p + 1) % out.length) {
+            out[p]++;
+            given++;
+        }
+    }
+
+    /**
+     * One process's references and counters. Under global replacement the
+     * shared task owns the fault counters and its own task only the working
+     * set, so the two never write the same field.
+     */
+    private final class Process {
+        final int[] refs;
+        final WorkingSet workingSet = new WorkingSet(window);
+        FramePolicy policy;
+        int length, cursor;
+        int epochRefs, epochFaults;
+        long faults, stolen;
+
+        Process(int length) {
+            this.refs = new int[length];
+        }
+
+        void runEpoch() {
+            int end = cursor + epochRefs;
+            for (int k = cursor; k < end; k++) {
+                workingSet.reference(refs[k]);
+                if (policy != null && policy.access(refs[k])) epochFaults++;
+            }
+            cursor = end;
+            if (policy != null) faults += epochFaults;
+        }
+    }
+
+    /** The single policy of global replacement, with the owner of every resident page. */
+    private static final class Shared {
+        final ReplacementPolicy policy;
+        final int[] ids, owner;
+        final Process[] processes;
+        final int[] resident;
+
+        Shared(ReplacementPolicy policy, int[] ids, int[] owner, Process[] processes) {
+            this.policy = policy;
+            this.ids = ids;
+            this.owner = owner;
+            this.processes = processes;
+            this.resident = new int[processes.length];
+        }
+
+        void run(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int id = ids[i];
+                if (!policy.access(id)) continue;
+                int p = owner[id];
+                Process process = processes[p];
+                process.faults++;
+                process.epochFaults++;
+                resident[p]++;
+                if (policy.evicted()) {
+                    int victim = owner[policy.victim()];
+                    resident[victim]--;
+                    if (victim != p) processes[victim].stolen++;
+                }
+            }
+        }
+    }
+
+    /** Per-process outcome of a run; process indices are those of the {@link ProcessTrace}. */
+    public static final class Result {
+        private final int[] pids;
+        private final long[] references, faults, stolen;
+        private final int[] frames;
+        private final double[] meanWorkingSet;
+        private final int epochs, thrashingEpochs;
+        private final long firstThrashing;
+
+        Result(int processes, int epochs, int thrashingEpochs, long firstThrashing) {
+            pids = new int[processes];
+            references = new long[processes];
+            faults = new long[processes];
+            stolen = new long[processes];
+            frames = new int[processes];
+            meanWorkingSet = new double[processes];
+            this.epochs = epochs;
+            this.thrashingEpochs = thrashingEpochs;
+            this.firstThrashing = firstThrashing;
+        }
+
+        public int processes() { return pids.length; }
+        public int pid(int process) { return pids[process]; }
+        public long references(int process) { return references[process]; }
+        public long faults(int process) { return faults[process]; }
+
+        /** Pages the process lost to other processes' faults, or under local replacement to a smaller allocation. */
+        public long stolen(int process) { return stolen[process]; }
+
+        /** Frames held at the end: the allocation under local replacement, the resident pages under global. */
+        public int frames(int process) { return frames[process]; }
+
+        public double meanWorkingSet(int process) { return meanWorkingSet[process]; }
+
+        public long totalFaults() {
+            long total = 0;
+            for (long f : faults) total += f;
+            return total;
+        }
+
+        public int epochs() { return epochs; }
+        public int thrashingEpochs() { return thrashingEpochs; }
+
+        /** Index of the first reference of the first thrashing epoch, or -1. */
+        public long firstThrashing() { return firstThrashing; }
+    }
+}
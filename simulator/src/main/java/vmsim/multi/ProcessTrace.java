@@ -0,0 +1,90 @@
+package vmsim.multi;
+
+import java.util.Arrays;
+import vmsim.IntIntMap;
+
+/**
+ * An interleaved reference string of several processes: reference i is page
+ * {@link #page(int)} of process {@link #process(int)}. Processes are numbered
+ * densely in order of their first reference; {@link #pid(int)} gives back the
+ * id they had in the input.
+ */
+public final class ProcessTrace {
+    private final int[] process;
+    private final int[] pages;
+    private final int[] pids;
+
+    private ProcessTrace(int[] process, int[] pages, int[] pids) {
+        this.process = process;
+        this.pages = pages;
+        this.pids = pids;
+    }
+
+    /** Builds a trace from parallel arrays of process ids and page numbers. */
+    public static ProcessTrace of(int[] pids, int[] pages) {
+        if (pids.length != pages.length) throw new IllegalArgumentException("pids and pages differ in length");
+        IntIntMap dense = new IntIntMap(16);
+        int[] ids = new int[16];
+        int[] process = new int[pids.length];
+        for (int i = 0; i < pids.length; i++) {
+            int p = dense.get(pids[i]);
+            if (p < 0) {
+                p = dense.size();
+                dense.put(pids[i], p);
+                if (p == ids.length) ids = Arrays.copyOf(ids, p * 2);
+                ids[p] = pids[i];
+            }
+            process[i] = p;
+        }
+        return new ProcessTrace(process, pages.clone(), Arrays.copyOf(ids, dense.size()));
+    }
+
+    /** Parses whitespace or comma separated {@code pid:page} references, e.g. {@code 1:7 2:7 1:3}. */
+    public static ProcessTrace parse(CharSequence text) {
+        String s = text.toString().trim();
+        String[] tokens = s.isEmpty() ? new String[0] : s.split("[\\s,]+");
+        int[] pids = new int[tokens.length], pages = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            int colon = tokens[i].indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Expected pid:page but found '" + tokens[i] + "'");
+            try {
+                pids[i] = Integer.parseInt(tokens[i].substring(0, colon));
+                pages[i] = Integer.parseInt(tokens[i].substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid reference '" + tokens[i] + "'", e);
+            }
+        }
+        return of(pids, pages);
+    }
+
+    /**
+     * Round-robin schedule of separate per-process traces: each process in
+     * turn runs {@code quantum} references until all traces are used up.
+     * The pid of each process is its index in {@code traces}.
+     */
+    public static ProcessTrace interleave(int[][] traces, int quantum) {
+        if (quantum < 1) throw new IllegalArgumentException("quantum must be positive: " + quantum);
+        int total = 0;
+        for (int[] trace : traces) total += trace.length;
+        int[] process = new int[total], pages = new int[total];
+        int[] cursor = new int[traces.length];
+        int n = 0;
+        while (n < total) {
+            for (int p = 0; p < traces.length; p++) {
+                int from = cursor[p], to = Math.min(traces[p].length, from + quantum);
+                for (int i = from; i < to; i++) {
+                    process[n] = p;
+                    pages[n++] = traces[p][i];
+                }
+                cursor[p] = to;
+            }
+        }
+        return of(process, pages);
+    }
+
+    public int length() { return pages.length; }
+    public int processes() { return pids.length; }
+    public int process(int i) { return process[i]; }
+    public int page(int i) { return pages[i]; }
+    public int pid(int process) { return pids[process]; }
+}
@@ -0,0 +1,41 @@
+package vmsim.multi;
+
+import vmsim.IntIntMap;
+
+/**
+ * Denning's working set W(t, window) of one process in its own virtual time:
+ * the distinct pages among its last {@code window} references. A ring of those
+ * references expires the oldest one per step, so each update is O(1).
+ */
+final class WorkingSet {
+    private final int window;
+    private final int[] ring;
+    private final IntIntMap lastUse = new IntIntMap(64);
+    private int time;
+    private int size;
+    private long sizeSum;
+
+    WorkingSet(int window) {
+        this.window = window;
+        this.ring = new int[window];
+    }
+
+    void reference(int page) {
+        int slot = time % window;
+        if (time >= window) {
+            int old = ring[slot];
+            if (lastUse.get(old) == time - window) {
+                lastUse.remove(old);
+                size--;
+            }
+        }
+        if (lastUse.put(page, time) < 0) size++;
+        ring[slot] = page;
+        time++;
+        sizeSum += size;
+    }
+
+    int size() { return size; }
+
+    double mean() { return time == 0 ? 0 : (double) sizeSum / time; }
+}
@@ -0,0 +1,74 @@
+package vmsim.prefetch;
+
+import java.util.Arrays;
+import vmsim.IntIntMap;
+
+/**
+ * History-based prediction: for every page it keeps the last {@code ways}
+ * distinct pages that followed it, most recent first, and on a reference
+ * loads those successors. This catches repeating patterns that are neither
+ * sequential nor strided, such as pointer chasing or a loop over a fixed
+ * set of scattered pages. The table grows by one row per distinct page.
+ */
+public final class MarkovPrefetcher implements Prefetcher {
+    private final int ways;
+    private final IntIntMap rowOf = new IntIntMap(1024);
+    private int[] successors;
+    private int[] counts;
+    private int rows;
+    private int last;
+    private boolean started;
+
+    public MarkovPrefetcher(int ways) {
+        if (ways < 1) throw new IllegalArgumentException("ways must be positive: " + ways);
+        this.ways = ways;
+        successors = new int[64 * ways];
+        counts = new int[64];
+    }
+
+    @Override public String name() { return "Markov"; }
+    @Override public int degree() { return ways; }
+
+    @Override
+    public int predict(int page, boolean fault, int[] out) {
+        if (started && last != page) learn(row(last), page);
+        last = page;
+        started = true;
+        int row = rowOf.get(page);
+        if (row < 0) return 0;
+        System.arraycopy(successors, row * ways, out, 0, counts[row]);
+        return counts[row];
+    }
+
+    private int row(int page) {
+        int row = rowOf.get(page);
+        if (row >= 0) return row;
+        if (rows == counts.length) {
+            counts = Arrays.copyOf(counts, 2 * rows);
+            successors = Arrays.copyOf(successors, 2 * rows * ways);
+        }
+        rowOf.put(page, rows);
+        counts[rows] = 0;
+        return rows++;
+    }
+
+    /** Moves the successor to the front of the row, dropping the oldest one when the row is full. */
+    private void learn(int row, int next) {
+        int base = row * ways, n = counts[row];
+        int at = 0;
+        while (at < n && successors[base + at] != next) at++;
+        if (at == n) {
+            if (n < ways) counts[row]++;
+            else at = n - 1;
+        }
+        System.arraycopy(successors, base, successors, base + 1, at);
+        successors[base] = next;
+    }
+
+    @Override
+    public void reset() {
+        rowOf.clear();
+        rows = 0;
+        started = false;
+    }
+}
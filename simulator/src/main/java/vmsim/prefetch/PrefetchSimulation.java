@@ -0,0 +1,94 @@
+package vmsim.prefetch;
+
+import vmsim.FramePolicy;
+import vmsim.IntIntMap;
+
+/**
+ * Runs a trace through a replacement policy with a prefetcher in front of
+ * it. After every demand reference the prefetcher's predictions that are not
+ * resident are loaded with {@link FramePolicy#prefetch}, evicting by the
+ * policy's own choice.
+ *
+ * <p>A prefetched page is useful when a demand reference reaches it while it
+ * is still resident, and pollution when it is evicted before that. Accuracy
+ * is the useful share of the pages prefetched; coverage is the share of the
+ * faults the trace would otherwise have taken that prefetching removed,
+ * counted as useful prefetches over useful prefetches plus remaining faults.
+ */
+public final class PrefetchSimulation {
+    private final FramePolicy policy;
+    private final Prefetcher prefetcher;
+
+    /**
+     * A null prefetcher runs demand paging alone, as the baseline to compare
+     * against. Policies that do not {@linkplain FramePolicy#supportsPrefetch
+     * support prefetching} are rejected.
+     */
+    public PrefetchSimulation(FramePolicy policy, Prefetcher prefetcher) {
+        if (!policy.supportsPrefetch()) throw new IllegalArgumentException(policy.name() + " cannot place prefetched pages");
+        this.policy = policy;
+        this.prefetcher = prefetcher;
+    }
+
+    public Result run(int[] trace) {
+        policy.reset();
+        if (prefetcher != null) prefetcher.reset();
+        IntIntMap unused = new IntIntMap(policy.capacity());
+        int[] predicted = new int[prefetcher == null ? 0 : prefetcher.degree()];
+        long faults = 0, issued = 0, useful = 0, pollution = 0;
+        for (int page : trace) {
+            boolean fault = policy.access(page);
+            if (fault) {
+                faults++;
+                if (policy.evicted() && unused.remove(policy.victim()) >= 0) pollution++;
+            } else if (unused.remove(page) >= 0) {
+                useful++;
+            }
+            int n = prefetcher == null ? 0 : prefetcher.predict(page, fault, predicted);
+            for (int i = 0; i < n; i++) {
+                if (!policy.prefetch(predicted[i])) continue;
+                issued++;
+                if (policy.evicted() && unused.remove(policy.victim()) >= 0) pollution++;
+                unused.put(predicted[i], 0);
+            }
+        }
+        return new Result(trace.length, faults, issued, useful, pollution);
+    }
+
+    public static final class Result {
+        private final long references, faults, prefetched, useful, pollution;
+
+        Result(long references, long faults, long prefetched, long useful, long pollution) {
+            this.references = references;
+            this.faults = faults;
+            this.prefetched = prefetched;
+            this.useful = useful;
+            this.pollution = pollution;
+        }
+
+        public long references() { return references; }
+
+        /** Demand faults left with prefetching. */
+        public long faults() { return faults; }
+
+        /** Pages loaded by the prefetcher. */
+        public long prefetched() { return prefetched; }
+
+        public long useful() { return useful; }
+
+        /** Prefetched pages evicted before their first reference. */
+        public long pollution() { return pollution; }
+
+        public double hitRatio() {
+            return references == 0 ? Double.NaN : 1 - (double) faults / references;
+        }
+
+        public double accuracy() {
+            return prefetched == 0 ? Double.NaN : (double) useful / prefetched;
+        }
+
+        public double coverage() {
+            return useful + faults == 0 ? Double.NaN : (double) useful / (useful + faults);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package vmsim.prefetch;
+
+/**
+ * Predicts pages about to be referenced so they can be loaded before their
+ * first use. It sees every demand reference after the policy has served it.
+ */
+public interface Prefetcher {
+
+    String name();
+
+    /** Most pages one call to {@link #predict} may return. */
+    int degree();
+
+    /**
+     * Learns from a demand reference and writes the pages to load ahead into
+     * {@code out}, most urgent first; returns how many it wrote.
+     */
+    int predict(int page, boolean fault, int[] out);
+
+    void reset();
+}
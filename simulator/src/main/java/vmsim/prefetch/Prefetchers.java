@@ -0,0 +1,27 @@
+package vmsim.prefetch;
+
+/**
+ * Creates prefetchers by name with default settings for a frame count.
+ * Read-ahead windows and stride degrees are held to an eighth of the frames:
+ * with two windows in flight a larger one evicts its own pages before the
+ * stream reaches them.
+ */
+public final class Prefetchers {
+    public static final String[] NAMES = { "Sequential", "Stride", "Markov" };
+
+    public static final int READ_AHEAD_INITIAL = 4, READ_AHEAD_MAX = 32;
+    public static final int STRIDE_DEGREE = 4;
+    public static final int MARKOV_WAYS = 2;
+
+    private Prefetchers() { }
+
+    public static Prefetcher create(String name, int frames) {
+        int reach = Math.max(1, frames / 8);
+        switch (name) {
+            case "Sequential": return new SequentialPrefetcher(Math.min(READ_AHEAD_INITIAL, reach), Math.min(READ_AHEAD_MAX, reach));
+            case "Stride": return new StridePrefetcher(Math.min(STRIDE_DEGREE, reach));
+            case "Markov": return new MarkovPrefetcher(MARKOV_WAYS);
+            default: throw new IllegalArgumentException("Unknown prefetcher: " + name);
+        }
+    }
+}
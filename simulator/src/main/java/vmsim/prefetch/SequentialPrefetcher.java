@@ -0,0 +1,52 @@
+package vmsim.prefetch;
+
+/**
+ * Read-ahead for sequential streams with an adaptive window, after the
+ * Linux page cache. A reference that does not follow the previous one ends
+ * the stream and closes the window. Once a stream reaches the first page of
+ * the last window read ahead, the next window is issued at twice the size,
+ * up to {@code max}, so it is in memory before the stream gets there.
+ */
+public final class SequentialPrefetcher implements Prefetcher {
+    private final int initial, max;
+    private long last = Long.MIN_VALUE, ahead, trigger;
+    private int window;
+
+    public SequentialPrefetcher(int initial, int max) {
+        if (initial < 1 || max < initial) throw new IllegalArgumentException("Invalid read-ahead window: " + initial + ".." + max);
+        this.initial = initial;
+        this.max = max;
+    }
+
+    @Override public String name() { return "Sequential"; }
+    @Override public int degree() { return max; }
+
+    /** Pages the next read-ahead would issue; 0 outside a stream. */
+    public int window() { return window; }
+
+    @Override
+    public int predict(int page, boolean fault, int[] out) {
+        boolean sequential = page == last + 1;
+        last = page;
+        if (!sequential) {
+            window = 0;
+            ahead = trigger = page + 1L;
+            return 0;
+        }
+        if (page < trigger) return 0;
+        window = window == 0 ? initial : Math.min(2 * window, max);
+        long from = Math.max(ahead, page + 1L);
+        int n = (int) Math.max(0, Math.min(window, Integer.MAX_VALUE - from + 1));
+        for (int i = 0; i < n; i++) out[i] = (int) (from + i);
+        ahead = from + window;
+        trigger = from;
+        return n;
+    }
+
+    @Override
+    public void reset() {
+        last = Long.MIN_VALUE;
+        ahead = trigger = 0;
+        window = 0;
+    }
+}
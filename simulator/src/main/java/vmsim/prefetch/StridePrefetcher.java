@@ -0,0 +1,39 @@
+package vmsim.prefetch;
+
+/**
+ * Detects a constant distance between consecutive references, forwards or
+ * backwards, and once the same stride has been seen twice in a row loads the
+ * next {@code degree} pages along it.
+ */
+public final class StridePrefetcher implements Prefetcher {
+    private final int degree;
+    private long last = Long.MIN_VALUE, stride;
+    private boolean confirmed;
+
+    public StridePrefetcher(int degree) {
+        if (degree < 1) throw new IllegalArgumentException("degree must be positive: " + degree);
+        this.degree = degree;
+    }
+
+    @Override public String name() { return "Stride"; }
+    @Override public int degree() { return degree; }
+
+    @Override
+    public int predict(int page, boolean fault, int[] out) {
+        long d = last == Long.MIN_VALUE ? 0 : page - last;
+        confirmed = d != 0 && d == stride;
+        stride = d;
+        last = page;
+        if (!confirmed) return 0;
+        int n = 0;
+        for (long p = page + d; n < degree && p >= Integer.MIN_VALUE && p <= Integer.MAX_VALUE; p += d) out[n++] = (int) p;
+        return n;
+    }
+
+    @Override
+    public void reset() {
+        last = Long.MIN_VALUE;
+        stride = 0;
+        confirmed = false;
+    }
+}
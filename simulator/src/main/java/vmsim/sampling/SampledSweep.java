@@ -0,0 +1,191 @@
+package vmsim.sampling;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import vmsim.MonteCarlo;
+import vmsim.Policies;
+import vmsim.ReplacementPolicy;
+import vmsim.trace.TraceSource;
+
+/**
+ * Approximate fault curves from spatially sampled miniature simulations.
+ * The trace is streamed once; each of several {@link Shards} samples feeds
+ * every algorithm at every frame count scaled down by the sampling rate. A
+ * sample's faults divided by the rate are a Horvitz-Thompson estimate of the
+ * faults of the full run, and the spread of the estimates across samples
+ * gives their confidence interval. No SHARDS-style adjustment for the
+ * references a sample happened to catch is applied, so a few very hot pages,
+ * sampled or not, show up as spread between the samples rather than being
+ * corrected for.
+ *
+ * <p>Memory is bounded by the scaled-down policies and a few fixed batches,
+ * however long the trace. Frame counts that scale to the same size share
+ * their simulation, so a long frame range costs little more than its
+ * distinct scaled sizes. Optimal needs the whole future and is not supported.
+ */
+public final class SampledSweep {
+    public static final int DEFAULT_SETS = 8;
+
+    private static final int BATCH = 1 << 16;
+    private static final int CAPACITY = 1 << 18;
+
+    public interface Listener {
+        /** Called from the streaming thread after each batch with the references read so far. */
+        void progress(long references);
+    }
+
+    private final String[] algorithms;
+    private final int[] frames;
+    private final Shards samples;
+    private final long[] seeds;
+    private final int[] scaled;
+    private final int[] sizes;
+    private volatile boolean cancelled;
+
+    /** The seed picks, through a {@link SplittableRandom}, the samples and each sample's policy seed. */
+    public SampledSweep(String[] algorithms, int[] frames, double rate, int sets, long seed) {
+        if (sets < 1) throw new IllegalArgumentException("sets must be positive: " + sets);
+        if (frames.length == 0) throw new IllegalArgumentException("No frame counts");
+        for (String algorithm : algorithms) {
+            if (Policies.needsTrace(algorithm)) throw new IllegalArgumentException(algorithm + " needs the whole trace and cannot be sampled");
+            Policies.create(algorithm, 1, null);
+        }
+        for (int f : frames) {
+            if (f < 1) throw new IllegalArgumentException("frames must be positive: " + f);
+        }
+        this.algorithms = algorithms.clone();
+        this.frames = frames.clone();
+        SplittableRandom root = new SplittableRandom(seed);
+        samples = new Shards(rate, sets, root.nextLong());
+        seeds = new long[sets];
+        for (int s = 0; s < sets; s++) seeds[s] = root.nextLong();
+        scaled = new int[frames.length];
+        for (int c = 0; c < frames.length; c++) scaled[c] = samples.scale(frames[c]);
+        sizes = Arrays.stream(scaled).distinct().sorted().toArray();
+    }
+
+    public String[] algorithms() { return algorithms.clone(); }
+    public int columns() { return frames.length; }
+    public int frames(int column) { return frames[column]; }
+
+    /** Frames of the miniature simulation standing in for the column's frame count. */
+    public int scaledFrames(int column) { return scaled[column]; }
+
+    public double rate() { return samples.rate(); }
+
+    public int sets() { return seeds.length; }
+
+    public void cancel() { cancelled = true; }
+    public boolean isCancelled() { return cancelled; }
+
+    /** Streams the source and blocks until done; throws CancellationException if cancelled. */
+    public Result run(TraceSource source, ForkJoinPool pool, Listener listener) throws IOException {
+        int sets = seeds.length;
+        ReplacementPolicy[] policies = new ReplacementPolicy[sets * algorithms.length * sizes.length];
+        for (int s = 0; s < sets; s++) {
+            for (int a = 0; a < algorithms.length; a++) {
+                for (int z = 0; z < sizes.length; z++) policies[cell(s, a, z)] = Policies.create(algorithms[a], sizes[z], null, seeds[s]);
+            }
+        }
+        long[] faults = new long[policies.length];
+        int[][] sampled = new int[sets][CAPACITY];
+        int[] fill = new int[sets];
+        long[] counts = new long[sets];
+        int[] batch = new int[BATCH];
+        long references = 0;
+        for (int n; (n = source.read(batch)) >= 0; ) {
+            if (cancelled) throw new CancellationException("Sampled sweep cancelled");
+            references += n;
+            samples.filter(batch, n, sampled, fill);
+            int fullest = 0;
+            for (int f : fill) fullest = Math.max(fullest, f);
+            if (fullest > CAPACITY - BATCH) {
+                pool.invoke(new Cells(policies, faults, sampled, fill, 0, policies.length));
+                for (int s = 0; s < sets; s++) {
+                    counts[s] += fill[s];
+                    fill[s] = 0;
+                }
+            }
+            if (listener != null) listener.progress(references);
+        }
+        pool.invoke(new Cells(policies, faults, sampled, fill, 0, policies.length));
+        for (int s = 0; s < sets; s++) counts[s] += fill[s];
+        if (cancelled) throw new CancellationException("Sampled sweep cancelled");
+        return new Result(references, counts, faults);
+    }
+
+    private int cell(int set, int algorithm, int size) {
+        return (set * algorithms.length + algorithm) * sizes.length + size;
+    }
+
+    private final class Cells extends RecursiveAction {
+        private final ReplacementPolicy[] policies;
+        private final long[] faults;
+        private final int[][] sampled;
+        private final int[] fill;
+        private final int from, to;
+
+        Cells(ReplacementPolicy[] policies, long[] faults, int[][] sampled, int[] fill, int from, int to) {
+            this.policies = policies;
+            this.faults = faults;
+            this.sampled = sampled;
+            this.fill = fill;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Cells(policies, faults, sampled, fill, from, mid),
+                    new Cells(policies, faults, sampled, fill, mid, to));
+                return;
+            }
+            int set = from / (algorithms.length * sizes.length);
+            ReplacementPolicy policy = policies[from];
+            int[] pages = sampled[set];
+            long f = 0;
+            for (int i = 0, n = fill[set]; i < n; i++) {
+                if (policy.access(pages[i])) f++;
+            }
+            faults[from] += f;
+        }
+    }
+
+    public final class Result {
+        private final long references;
+        private final long[] sampledReferences;
+        private final long[] faults;
+
+        Result(long references, long[] sampledReferences, long[] faults) {
+            this.references = references;
+            this.sampledReferences = sampledReferences;
+            this.faults = faults;
+        }
+
+        public long references() { return references; }
+
+        /** References that fell into each sample. */
+        public long[] sampledReferences() { return sampledReferences.clone(); }
+
+        /** Fault estimates of every sample, scaled to the full trace and capped at its length. */
+        public MonteCarlo.Result estimate(int algorithm, int column) {
+            int size = Arrays.binarySearch(sizes, scaled[column]);
+            long[] estimates = new long[seeds.length];
+            for (int s = 0; s < seeds.length; s++) {
+                estimates[s] = Math.min(references, Math.round(faults[cell(s, algorithm, size)] / rate()));
+            }
+            return new MonteCarlo.Result(estimates);
+        }
+
+        /** The mean estimate, rounded. */
+        public long faults(int algorithm, int column) {
+            return Math.round(estimate(algorithm, column).mean());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package vmsim.sampling;
+
+import java.util.SplittableRandom;
+
+/**
+ * Spatial sampling in the style of SHARDS: a page belongs to a sample when a
+ * hash of its number falls into the sample's range, so a sample holds either
+ * every reference to a page or none of them and reuse patterns survive. A
+ * cache of {@code frames} frames over the full trace is modelled by one of
+ * {@code frames * rate} frames over the sample.
+ *
+ * <p>Several samples are drawn at once. As many as fit side by side take
+ * disjoint ranges of one hash, so a reference is hashed once for all of
+ * them; only when the rate leaves no room does another salted hash start a
+ * new group.
+ */
+public final class Shards {
+    private static final long RANGE = 1L << 32;
+
+    private final double rate;
+    private final long threshold;
+    private final int sets, perGroup;
+    private final long[] salts;
+
+    /** Salts are drawn from a {@link SplittableRandom} seeded with the seed. */
+    public Shards(double rate, int sets, long seed) {
+        if (!(rate > 0 && rate <= 1)) throw new IllegalArgumentException("Sampling rate must be in (0, 1]: " + rate);
+        if (sets < 1) throw new IllegalArgumentException("sets must be positive: " + sets);
+        this.rate = rate;
+        threshold = Math.max(1, Math.round(rate * RANGE));
+        this.sets = sets;
+        perGroup = (int) Math.min(sets, RANGE / threshold);
+        salts = new long[(sets + perGroup - 1) / perGroup];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int g = 0; g < salts.length; g++) salts[g] = random.nextLong();
+    }
+
+    public double rate() { return rate; }
+
+    public int sets() { return sets; }
+
+    /** Whether the page belongs to the given sample. */
+    public boolean sampled(int page, int set) {
+        return hash(page, salts[set / perGroup]) / threshold == set % perGroup;
+    }
+
+    /**
+     * Appends the sampled references among the first n of a batch to the
+     * sample buffers past their fill counts, which it advances; each buffer
+     * needs room for n more.
+     */
+    public void filter(int[] batch, int n, int[][] out, int[] fill) {
+        for (int g = 0, first = 0; g < salts.length; g++, first += perGroup) {
+            long salt = salts[g];
+            long limit = Math.min(perGroup, sets - first) * threshold;
+            for (int i = 0; i < n; i++) {
+                int page = batch[i];
+                long h = hash(page, salt);
+                if (h >= limit) continue;
+                int s = first + (int) (h / threshold);
+                out[s][fill[s]++] = page;
+            }
+        }
+    }
+
+    /** Frames that model the given frame count over the sample, at least one. */
+    public int scale(int frames) {
+        return (int) Math.max(1, Math.round(frames * rate));
+    }
+
+    /** A hash of the page in [0, 2^32). */
+    private static long hash(int page, long salt) {
+        long z = ((page & 0xFFFFFFFFL) ^ salt) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 32;
+    }
+}
@@ -0,0 +1,20 @@
+package vmsim.trace;
+
+/** Serves a reference string that is already in memory. */
+public final class ArrayTraceSource implements TraceSource {
+    private final int[] trace;
+    private int position;
+
+    public ArrayTraceSource(int[] trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public int read(int[] buffer) {
+        if (position >= trace.length) return -1;
+        int n = Math.min(buffer.length, trace.length - position);
+        System.arraycopy(trace, position, buffer, 0, n);
+        position += n;
+        return n;
+    }
+}
@@ -0,0 +1,16 @@
+package vmsim.trace;
+
+/**
+ * Compact archive format: the magic bytes followed by one zigzag varint per
+ * reference holding the difference from the previous page number. Nearby or
+ * repeated pages take a single byte.
+ */
+final class BinaryTraceFormat {
+    static final byte[] MAGIC = {'V', 'M', 'T', 'R', 1};
+
+    private BinaryTraceFormat() { }
+
+    static int zigzag(int delta) { return (delta << 1) ^ (delta >> 31); }
+
+    static int unzigzag(int encoded) { return (encoded >>> 1) ^ -(encoded & 1); }
+}
@@ -0,0 +1,60 @@
+package vmsim.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Streams a delta/varint archive written by {@link BinaryTraceWriter}. */
+public final class BinaryTraceReader implements TraceSource {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int previous;
+    private int partial, shift;
+    private boolean eof;
+
+    public BinaryTraceReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(BinaryTraceFormat.MAGIC.length);
+        while (header.hasRemaining() && channel.read(header) >= 0) { }
+        if (!TraceFiles.isBinary(header.array())) {
+            channel.close();
+            throw new IOException("Not a binary trace: " + file);
+        }
+        bytes.flip();
+    }
+
+    @Override
+    public int read(int[] buffer) throws IOException {
+        int n = 0;
+        while (n < buffer.length) {
+            if (!bytes.hasRemaining()) {
+                if (eof) break;
+                bytes.clear();
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                if (eof && shift != 0) throw new IOException("Truncated binary trace");
+                continue;
+            }
+            byte b = bytes.get();
+            partial |= (b & 0x7F) << shift;
+            if (b < 0) {
+                shift += 7;
+                if (shift > 28) throw new IOException("Malformed varint in binary trace");
+                continue;
+            }
+            previous += BinaryTraceFormat.unzigzag(partial);
+            buffer[n++] = previous;
+            partial = shift = 0;
+        }
+        return n == 0 && eof ? -1 : n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,44 @@
+package vmsim.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Writes references in the delta/varint archive format read by {@link BinaryTraceReader}. */
+public final class BinaryTraceWriter implements Closeable {
+    private final OutputStream out;
+    private int previous;
+
+    public BinaryTraceWriter(Path file) throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        out.write(BinaryTraceFormat.MAGIC);
+    }
+
+    public void write(int page) throws IOException {
+        int v = BinaryTraceFormat.zigzag(page - previous);
+        previous = page;
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    /** Copies a whole source into the archive; returns the number of references written. */
+    public long writeAll(TraceSource source) throws IOException {
+        int[] buffer = new int[8192];
+        long count = 0;
+        for (int n; (n = source.read(buffer)) >= 0; count += n) {
+            for (int i = 0; i < n; i++) write(buffer[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
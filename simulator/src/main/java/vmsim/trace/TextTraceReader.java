@@ -0,0 +1,96 @@
+package vmsim.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses whitespace or comma separated page numbers straight from a file
+ * channel into int batches. Only one direct buffer is held, whatever the
+ * size of the file; a number split across two reads is carried over.
+ * A number may end in {@code r} or {@code w} to mark a read or a store,
+ * as in {@code 7w}; unmarked references are reads. Read as unsigned, values
+ * up to 2^32 - 1 are accepted as well and kept as their 32-bit pattern, so
+ * 32-bit addresses in the upper half of the space fit an int.
+ */
+public final class TextTraceReader implements TraceSource {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final long max;
+    private long offset;
+    private long value;
+    private boolean negative, inNumber, suffixed, write, eof;
+
+    public TextTraceReader(Path file) throws IOException {
+        this(file, false);
+    }
+
+    public TextTraceReader(Path file, boolean unsigned) throws IOException {
+        max = unsigned ? 0xFFFFFFFFL : Integer.MAX_VALUE;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        bytes.flip();
+    }
+
+    @Override
+    public int read(int[] buffer) throws IOException {
+        return read(buffer, null);
+    }
+
+    @Override
+    public int read(int[] buffer, boolean[] writes) throws IOException {
+        int n = 0;
+        while (n < buffer.length) {
+            if (!bytes.hasRemaining()) {
+                if (eof) break;
+                bytes.clear();
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                if (eof && inNumber) n = finish(buffer, writes, n);
+                else if (eof && negative) throw error("Dangling '-'");
+                continue;
+            }
+            byte b = bytes.get();
+            offset++;
+            if (b >= '0' && b <= '9') {
+                if (suffixed) throw error("Digit after access type");
+                value = value * 10 + (b - '0');
+                if (value > max + 1) throw error("Page number out of range");
+                inNumber = true;
+            } else if (b == '-' && !inNumber && !negative) {
+                negative = true;
+            } else if ((b == 'r' || b == 'R' || b == 'w' || b == 'W') && inNumber && !suffixed) {
+                suffixed = true;
+                write = b == 'w' || b == 'W';
+            } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == ',') {
+                if (inNumber) n = finish(buffer, writes, n);
+                else if (negative) throw error("Dangling '-'");
+            } else {
+                throw error("Unexpected character '" + (char) b + "'");
+            }
+        }
+        return n == 0 && eof ? -1 : n;
+    }
+
+    private int finish(int[] buffer, boolean[] writes, int n) throws IOException {
+        long v = negative ? -value : value;
+        if (v > max) throw error("Page number out of range");
+        buffer[n] = (int) v;
+        if (writes != null) writes[n] = write;
+        value = 0;
+        negative = inNumber = suffixed = write = false;
+        return n + 1;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at byte " + (offset - 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,66 @@
+package vmsim.trace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/** Opens trace files in whichever format they were written. */
+public final class TraceFiles {
+
+    private TraceFiles() { }
+
+    public static TraceSource open(Path file) throws IOException {
+        return open(file, false);
+    }
+
+    /** As {@link #open(Path)}; a text trace read as unsigned takes values up to 2^32 - 1, see {@link TextTraceReader}. */
+    public static TraceSource open(Path file, boolean unsigned) throws IOException {
+        byte[] header = new byte[BinaryTraceFormat.MAGIC.length];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.read(header);
+        }
+        if (n == header.length && isBinary(header)) return new BinaryTraceReader(file);
+        return new TextTraceReader(file, unsigned);
+    }
+
+    static boolean isBinary(byte[] header) {
+        return Arrays.equals(header, BinaryTraceFormat.MAGIC);
+    }
+
+    /** Converts any readable trace into the compact binary archive format. */
+    public static long archive(Path from, Path to) throws IOException {
+        try (TraceSource source = open(from); BinaryTraceWriter writer = new BinaryTraceWriter(to)) {
+            return writer.writeAll(source);
+        }
+    }
+
+    /**
+     * Loads a source into memory for the callers that need random access.
+     * Fails instead of growing past the given number of references.
+     */
+    public static int[] readAll(TraceSource source, int limit) throws IOException {
+        return readAll(source, limit, null);
+    }
+
+    /** As {@link #readAll(TraceSource, int)}, setting the bit of every store in {@code writes} when it is given. */
+    public static int[] readAll(TraceSource source, int limit, BitSet writes) throws IOException {
+        int[] trace = new int[Math.min(limit, 1 << 16)];
+        int[] buffer = new int[8192];
+        boolean[] stores = writes == null ? null : new boolean[buffer.length];
+        int size = 0;
+        for (int n; (n = stores == null ? source.read(buffer) : source.read(buffer, stores)) >= 0; ) {
+            if (size + (long) n > limit) throw new IOException("Trace is longer than " + limit + " references");
+            if (size + n > trace.length) trace = Arrays.copyOf(trace, (int) Math.min(limit, Math.max(size + n, 2L * trace.length)));
+            System.arraycopy(buffer, 0, trace, size, n);
+            if (stores != null) {
+                for (int i = 0; i < n; i++) if (stores[i]) writes.set(size + i);
+            }
+            size += n;
+        }
+        return size == trace.length ? trace : Arrays.copyOf(trace, size);
+    }
+}
@@ -0,0 +1,25 @@
+package vmsim.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/** A stream of page references read in batches, so a trace never has to fit in memory. */
+public interface TraceSource extends Closeable {
+
+    /** Fills the buffer from the start; returns the number of references read or -1 at the end. */
+    int read(int[] buffer) throws IOException;
+
+    /**
+     * Like {@link #read(int[])}, also recording in {@code writes} which
+     * references are stores. Formats without access types report reads only.
+     */
+    default int read(int[] buffer, boolean[] writes) throws IOException {
+        int n = read(buffer);
+        if (n > 0) Arrays.fill(writes, 0, n, false);
+        return n;
+    }
+
+    @Override
+    default void close() throws IOException { }
+}
@@ -0,0 +1,25 @@
+package vmsim.workload;
+
+/**
+ * Cycles through pages 0..pages-1 in order. With slightly more pages than
+ * frames it is the classic case where LRU faults on every reference.
+ */
+public final class LoopWorkload extends Workload {
+    private final int pages;
+    private int next;
+
+    public LoopWorkload(int pages, long length) {
+        super(length);
+        this.pages = positive(pages, "pages");
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        int p = next;
+        for (int i = 0; i < n; i++) {
+            buffer[i] = p;
+            if (++p == pages) p = 0;
+        }
+        next = p;
+    }
+}
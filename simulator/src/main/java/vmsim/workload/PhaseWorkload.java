@@ -0,0 +1,38 @@
+package vmsim.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * A working set of {@code workingSet} pages referenced uniformly that moves
+ * up by {@code shift} pages every {@code phase} references, so each phase
+ * change brings in {@code shift} new pages and retires as many old ones.
+ */
+public final class PhaseWorkload extends Workload {
+    private final int workingSet, phase, shift;
+    private final SplittableRandom random;
+    private int base, left;
+    private boolean started;
+
+    public PhaseWorkload(int workingSet, int phase, int shift, long length, long seed) {
+        super(length);
+        this.workingSet = positive(workingSet, "working set");
+        this.phase = positive(phase, "phase");
+        if (shift < 0) throw new IllegalArgumentException("shift must not be negative: " + shift);
+        this.shift = shift;
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        for (int i = 0; i < n; ) {
+            if (left == 0) {
+                if (started) base = (int) ((base + (long) shift) % (Integer.MAX_VALUE - (long) workingSet + 1));
+                started = true;
+                left = phase;
+            }
+            int end = (int) Math.min(n, (long) i + left);
+            left -= end - i;
+            for (; i < end; i++) buffer[i] = base + random.nextInt(workingSet);
+        }
+    }
+}
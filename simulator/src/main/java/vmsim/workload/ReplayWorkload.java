@@ -0,0 +1,42 @@
+package vmsim.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Scales up a sample of a real trace. Every sampled page stands for
+ * {@code scale} pages, and each reference to it becomes references to all
+ * of them, starting at a random one; the sample repeats until the length is
+ * reached. Footprint, length and reuse distances all grow by the scale, so
+ * a spatially sampled trace at rate 1/scale replays at its original size.
+ */
+public final class ReplayWorkload extends Workload {
+    private final int[] sample;
+    private final int scale;
+    private final SplittableRandom random;
+    private int position, step, start;
+
+    public ReplayWorkload(int[] sample, int scale, long length, long seed) {
+        super(length);
+        if (sample.length == 0 && length > 0) throw new IllegalArgumentException("Empty sample");
+        this.sample = sample;
+        this.scale = positive(scale, "scale");
+        for (int page : sample) {
+            long first = (long) page * scale;
+            if (first < Integer.MIN_VALUE || first + scale - 1 > Integer.MAX_VALUE) throw new IllegalArgumentException("Page " + page + " scaled by " + scale + " is out of range");
+        }
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        for (int i = 0; i < n; i++) {
+            if (step == 0) start = random.nextInt(scale);
+            int copy = start + step < scale ? start + step : start + step - scale;
+            buffer[i] = (int) ((long) sample[position] * scale + copy);
+            if (++step == scale) {
+                step = 0;
+                if (++position == sample.length) position = 0;
+            }
+        }
+    }
+}
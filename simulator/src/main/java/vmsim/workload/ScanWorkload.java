@@ -0,0 +1,39 @@
+package vmsim.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * A hot set of {@code hot} pages referenced uniformly, interrupted by a
+ * sequential scan: each reference continues the scan with probability
+ * {@code scanFraction}. The scan walks {@code scanPages} pages numbered
+ * after the hot set and starts over at the end, so it never re-references
+ * a page soon enough to be worth keeping.
+ */
+public final class ScanWorkload extends Workload {
+    private final int hot, scanPages;
+    private final double scanFraction;
+    private final SplittableRandom random;
+    private int cursor;
+
+    public ScanWorkload(int hot, int scanPages, double scanFraction, long length, long seed) {
+        super(length);
+        this.hot = positive(hot, "hot");
+        this.scanPages = positive(scanPages, "scan pages");
+        if ((long) hot + scanPages > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many pages: " + hot + " + " + scanPages);
+        if (!(scanFraction >= 0 && scanFraction <= 1)) throw new IllegalArgumentException("scan fraction must be in 0..1: " + scanFraction);
+        this.scanFraction = scanFraction;
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < scanFraction) {
+                buffer[i] = hot + cursor;
+                if (++cursor == scanPages) cursor = 0;
+            } else {
+                buffer[i] = random.nextInt(hot);
+            }
+        }
+    }
+}
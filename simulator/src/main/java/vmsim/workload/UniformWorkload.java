@@ -0,0 +1,20 @@
+package vmsim.workload;
+
+import java.util.SplittableRandom;
+
+/** Every reference picks one of {@code pages} pages with equal probability. */
+public final class UniformWorkload extends Workload {
+    private final int pages;
+    private final SplittableRandom random;
+
+    public UniformWorkload(int pages, long length, long seed) {
+        super(length);
+        this.pages = positive(pages, "pages");
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        for (int i = 0; i < n; i++) buffer[i] = random.nextInt(pages);
+    }
+}
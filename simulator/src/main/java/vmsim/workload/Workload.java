@@ -0,0 +1,39 @@
+package vmsim.workload;
+
+import vmsim.trace.TraceSource;
+
+/**
+ * A synthetic reference string produced batch by batch as it is read, so
+ * even billions of references never exist in memory at once. Each
+ * generator draws from its own seeded stream: two workloads built with the
+ * same parameters produce the same references.
+ */
+public abstract class Workload implements TraceSource {
+    private final long length;
+    private long produced;
+
+    protected Workload(long length) {
+        if (length < 0) throw new IllegalArgumentException("length must not be negative: " + length);
+        this.length = length;
+    }
+
+    /** References the workload produces in total. */
+    public final long length() { return length; }
+
+    @Override
+    public final int read(int[] buffer) {
+        if (produced >= length) return -1;
+        int n = (int) Math.min(buffer.length, length - produced);
+        generate(buffer, n);
+        produced += n;
+        return n;
+    }
+
+    /** Writes the next n references into the start of the buffer. */
+    protected abstract void generate(int[] buffer, int n);
+
+    static int positive(long value, String name) {
+        if (value < 1 || value > Integer.MAX_VALUE) throw new IllegalArgumentException(name + " must be in 1.." + Integer.MAX_VALUE + ": " + value);
+        return (int) value;
+    }
+}
@@ -0,0 +1,132 @@
+package vmsim.workload;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import vmsim.trace.TraceFiles;
+import vmsim.trace.TraceSource;
+
+/**
+ * Builds workloads from one-line specs: a generator name followed by
+ * {@code key=value} settings separated by spaces or commas, e.g.
+ * {@code zipf pages=1M skew=1.1 length=100M seed=7}. Counts take exponent
+ * notation or a binary K, M or G suffix, as sizes do elsewhere: 1K is 1024,
+ * so {@code length=5M} is 5,242,880 references and {@code length=5e6} is five
+ * million. Every generator accepts {@code length} (default 1,000,000) and
+ * {@code seed} (default 1).
+ *
+ * <ul>
+ * <li>{@code uniform pages=1024}
+ * <li>{@code zipf pages=1024 skew=0.99}
+ * <li>{@code loop pages=1024}
+ * <li>{@code scan hot=256 pages=16384 fraction=0.2}: a hot set with a sequential scan mixed in
+ * <li>{@code phases set=256 phase=100000 shift=128}: a working set that moves every phase
+ * <li>{@code replay file=trace.txt scale=1}: a sampled trace scaled up, see {@link ReplayWorkload}
+ * </ul>
+ */
+public final class Workloads {
+    public static final String[] NAMES = { "uniform", "zipf", "loop", "scan", "phases", "replay" };
+
+    /** Longest sample {@code replay} loads into memory. */
+    public static final int MAX_SAMPLE = 1 << 26;
+
+    private Workloads() { }
+
+    /** Whether the text names a generator rather than listing page numbers. */
+    public static boolean isSpec(String text) {
+        String t = text.trim();
+        return !t.isEmpty() && Character.isLetter(t.charAt(0));
+    }
+
+    /** Opens a fresh workload; opening the same spec again replays the same references. */
+    public static Workload open(String spec) throws IOException {
+        String[] tokens = spec.trim().split("[\\s,]+");
+        String name = tokens[0].toLowerCase(Locale.ROOT);
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (int i = 1; i < tokens.length; i++) {
+            String[] kv = tokens[i].split("=", 2);
+            if (kv.length < 2) throw new IllegalArgumentException("Expected key=value: " + tokens[i]);
+            settings.put(kv[0].toLowerCase(Locale.ROOT), kv[1]);
+        }
+        long length = count(settings, "length", 1_000_000);
+        long seed = settings.containsKey("seed") ? number(settings.remove("seed"), "seed") : 1;
+        Workload workload;
+        switch (name) {
+            case "uniform":
+                workload = new UniformWorkload(pages(settings, "pages", 1024), length, seed);
+                break;
+            case "zipf":
+                workload = new ZipfWorkload(pages(settings, "pages", 1024), real(settings, "skew", 0.99), length, seed);
+                break;
+            case "loop":
+                workload = new LoopWorkload(pages(settings, "pages", 1024), length);
+                break;
+            case "scan":
+                workload = new ScanWorkload(pages(settings, "hot", 256), pages(settings, "pages", 16384), real(settings, "fraction", 0.2), length, seed);
+                break;
+            case "phases": {
+                int set = pages(settings, "set", 256);
+                workload = new PhaseWorkload(set, pages(settings, "phase", 100_000), pages(settings, "shift", Math.max(1, set / 2)), length, seed);
+                break;
+            }
+            case "replay": {
+                String file = settings.remove("file");
+                if (file == null) throw new IllegalArgumentException("replay needs file=PATH");
+                int scale = pages(settings, "scale", 1);
+                int[] sample;
+                try (TraceSource source = TraceFiles.open(Paths.get(file))) {
+                    sample = TraceFiles.readAll(source, MAX_SAMPLE);
+                }
+                workload = new ReplayWorkload(sample, scale, length, seed);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + tokens[0] + " (expected one of " + String.join(", ", NAMES) + ")");
+        }
+        if (!settings.isEmpty()) throw new IllegalArgumentException("Unknown setting for " + name + ": " + settings.keySet().iterator().next());
+        return workload;
+    }
+
+    private static int pages(Map<String, String> settings, String key, int fallback) {
+        long n = count(settings, key, fallback);
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException(key + " is too large: " + n);
+        return (int) n;
+    }
+
+    private static long count(Map<String, String> settings, String key, long fallback) {
+        String value = settings.remove(key);
+        if (value == null) return fallback;
+        String s = value.toUpperCase(Locale.ROOT);
+        int shift = s.endsWith("K") ? 10 : s.endsWith("M") ? 20 : s.endsWith("G") ? 30 : 0;
+        if (shift > 0) s = s.substring(0, s.length() - 1);
+        double n;
+        try {
+            n = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " needs a count: " + value);
+        }
+        n *= 1L << shift;
+        if (!(n >= 0 && n <= Long.MAX_VALUE) || n != Math.rint(n)) throw new IllegalArgumentException(key + " needs a whole count: " + value);
+        return (long) n;
+    }
+
+    private static double real(Map<String, String> settings, String key, double fallback) {
+        String value = settings.remove(key);
+        if (value == null) return fallback;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " needs a number: " + value);
+        }
+    }
+
+    private static long number(String value, String key) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " needs a whole number: " + value);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package vmsim.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Page k-1 is referenced with probability proportional to 1/k^skew, so low
+ * page numbers are the hot ones. Up to {@link #ALIAS_LIMIT} pages, samples
+ * come from a Walker alias table: one random long and one table lookup per
+ * reference. Above it the table would not fit in cache, and rejection-
+ * inversion (Hörmann and Derflinger) takes over; it needs a few logarithms
+ * per reference but no memory, whatever the number of pages.
+ */
+public final class ZipfWorkload extends Workload {
+    private final int pages;
+    private final double skew;
+    private final double hIntegralX1, hIntegralN, s;
+    private final SplittableRandom random;
+    private final int[] threshold, alias;
+
+    public static final int ALIAS_LIMIT = 1 << 20;
+
+    public ZipfWorkload(int pages, double skew, long length, long seed) {
+        super(length);
+        this.pages = positive(pages, "pages");
+        if (!(skew > 0)) throw new IllegalArgumentException("skew must be positive: " + skew);
+        this.skew = skew;
+        hIntegralX1 = hIntegral(1.5) - 1;
+        hIntegralN = hIntegral(pages + 0.5);
+        s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        random = new SplittableRandom(seed);
+        if (pages <= ALIAS_LIMIT) {
+            threshold = new int[pages];
+            alias = new int[pages];
+            buildAlias();
+        } else {
+            threshold = alias = null;
+        }
+    }
+
+    @Override
+    protected void generate(int[] buffer, int n) {
+        if (alias == null) {
+            for (int i = 0; i < n; i++) buffer[i] = sample() - 1;
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            long r = random.nextLong();
+            int column = (int) (((r >>> 32) * pages) >>> 32);
+            // All ones when the draw falls below the threshold; branch free, as the outcome is close to a coin flip.
+            int own = (((int) r >>> 1) - threshold[column]) >> 31;
+            buffer[i] = alias[column] ^ ((column ^ alias[column]) & own);
+        }
+    }
+
+    /** Vose's construction: every column keeps its own page up to its threshold (out of 2^31) and its alias above. */
+    private void buildAlias() {
+        double[] scaled = new double[pages];
+        double sum = 0;
+        for (int k = 0; k < pages; k++) sum += scaled[k] = h(k + 1);
+        int[] small = new int[pages], large = new int[pages];
+        int smallCount = 0, largeCount = 0;
+        for (int k = 0; k < pages; k++) {
+            scaled[k] *= pages / sum;
+            if (scaled[k] < 1) small[smallCount++] = k; else large[largeCount++] = k;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount], more = large[--largeCount];
+            threshold[less] = (int) (scaled[less] * (1L << 31));
+            alias[less] = more;
+            scaled[more] -= 1 - scaled[less];
+            if (scaled[more] < 1) small[smallCount++] = more; else large[largeCount++] = more;
+        }
+        // Whatever is left has probability 1 up to rounding.
+        while (largeCount > 0) full(large[--largeCount]);
+        while (smallCount > 0) full(small[--smallCount]);
+    }
+
+    private void full(int column) {
+        threshold[column] = Integer.MAX_VALUE;
+        alias[column] = column;
+    }
+
+    private int sample() {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) k = 1;
+            else if (k > pages) k = pages;
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) return k;
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-skew * Math.log(x));
+    }
+
+    /** The integral of h from 1 to x, shifted by a constant. */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - skew) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - skew);
+        if (t < -1) t = -1;
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        if (Math.abs(x) > 1e-8) return Math.log1p(x) / x;
+        return 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        if (Math.abs(x) > 1e-8) return Math.expm1(x) / x;
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,33 @@
+package vmsim.writeback;
+
+/**
+ * Cost of one I/O operation to the backing store, in nanoseconds: a fixed
+ * overhead per operation, for the command and the seek or flash program
+ * setup, plus a transfer time per page. Batching dirty pages into one
+ * operation pays the overhead once.
+ */
+public final class IoCost {
+    /** A single page costs 100 us, the fault latency of {@link vmsim.mmu.Latencies#DEFAULT}. */
+    public static final IoCost DEFAULT = new IoCost(90_000, 10_000);
+
+    private final double operation, page;
+
+    public IoCost(double operation, double page) {
+        if (!(operation >= 0 && page >= 0)) throw new IllegalArgumentException("I/O costs must not be negative");
+        this.operation = operation;
+        this.page = page;
+    }
+
+    public double operation() { return operation; }
+    public double page() { return page; }
+
+    /** Nanoseconds for one operation moving the given number of pages. */
+    public double of(int pages) {
+        return operation + pages * page;
+    }
+
+    @Override
+    public String toString() {
+        return "operation=" + operation + ",page=" + page;
+    }
+}
@@ -0,0 +1,118 @@
+package vmsim.writeback;
+
+import java.util.BitSet;
+import vmsim.FramePolicy;
+
+/**
+ * Runs a trace of reads and stores through a policy's frames and counts the
+ * I/O it causes. Every fault reads its page in, one operation each; evicting
+ * a dirty page first writes it back synchronously, another operation on the
+ * fault path. Dirty pages dropped because the policy's limit was lowered
+ * (see {@link FramePolicy#droppedDirty()}) are written back the same way.
+ *
+ * <p>With a flusher, every {@link #setFlusher interval} references a
+ * background pass writes up to {@code batch} dirty pages back in a single
+ * operation and leaves them resident and clean, so later evictions of those
+ * pages are free. The pass sweeps the frames from where the previous one
+ * stopped, like a write-back daemon's clock.
+ */
+public final class WriteBackSimulation {
+    private final FramePolicy policy;
+    private final IoCost cost;
+    private int interval, batch;
+    private int cursor;
+
+    public WriteBackSimulation(FramePolicy policy, IoCost cost) {
+        this.policy = policy;
+        this.cost = cost;
+    }
+
+    /** Flushes up to {@code batch} dirty pages every {@code interval} references; an interval of 0 turns it off. */
+    public void setFlusher(int interval, int batch) {
+        if (interval < 0) throw new IllegalArgumentException("interval must not be negative: " + interval);
+        if (interval > 0 && batch < 1) throw new IllegalArgumentException("batch must be positive: " + batch);
+        this.interval = interval;
+        this.batch = batch;
+    }
+
+    /** Reference i is a store when bit i of {@code writes} is set. */
+    public Result run(int[] trace, BitSet writes) {
+        policy.reset();
+        cursor = 0;
+        long faults = 0, writeBacks = 0, flushedPages = 0, flushes = 0, dropped = 0;
+        double time = 0;
+        for (int i = 0; i < trace.length; i++) {
+            boolean fault = writes.get(i) ? policy.write(trace[i]) : policy.access(trace[i]);
+            if (fault) {
+                faults++;
+                time += cost.of(1);
+                if (policy.victimDirty()) {
+                    writeBacks++;
+                    time += cost.of(1);
+                }
+            }
+            if (policy.droppedDirty() != dropped) {
+                long pages = policy.droppedDirty() - dropped;
+                dropped += pages;
+                writeBacks += pages;
+                time += pages * cost.of(1);
+            }
+            if (interval > 0 && (i + 1) % interval == 0) {
+                int pages = flush();
+                if (pages > 0) {
+                    flushes++;
+                    flushedPages += pages;
+                    time += cost.of(pages);
+                }
+            }
+        }
+        return new Result(trace.length, writes.cardinality(), faults, writeBacks, flushedPages, flushes, time);
+    }
+
+    private int flush() {
+        int pages = 0;
+        int capacity = policy.capacity();
+        for (int n = 0; n < capacity && pages < batch && policy.dirtyPages() > 0; n++) {
+            int slot = cursor;
+            cursor = cursor + 1 == capacity ? 0 : cursor + 1;
+            int page = policy.pageAt(slot);
+            if (policy.slotOf(page) == slot && policy.clean(page)) pages++;
+        }
+        return pages;
+    }
+
+    public static final class Result {
+        private final long references, writes, faults, writeBacks, flushedPages, flushes;
+        private final double ioTime;
+
+        Result(long references, long writes, long faults, long writeBacks, long flushedPages, long flushes, double ioTime) {
+            this.references = references;
+            this.writes = writes;
+            this.faults = faults;
+            this.writeBacks = writeBacks;
+            this.flushedPages = flushedPages;
+            this.flushes = flushes;
+            this.ioTime = ioTime;
+        }
+
+        public long references() { return references; }
+        public long writes() { return writes; }
+        public long faults() { return faults; }
+
+        /** Dirty pages written back when they were evicted, whether by a fault or by a lowered limit. */
+        public long writeBacks() { return writeBacks; }
+
+        public long flushedPages() { return flushedPages; }
+        public long flushes() { return flushes; }
+
+        /** Page-ins, synchronous write-backs and flusher batches. */
+        public long ioOperations() { return faults + writeBacks + flushes; }
+
+        /** Total simulated I/O time in nanoseconds. */
+        public double ioTime() { return ioTime; }
+
+        public double hitRatio() {
+            return references == 0 ? Double.NaN : 1 - (double) faults / references;
+        }
+    }
+}
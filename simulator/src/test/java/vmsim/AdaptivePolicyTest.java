@@ -0,0 +1,127 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePolicyTest {
+    private static final String[] ADAPTIVE = { "ARC", "2Q", "LIRS", "CLOCK-Pro" };
+
+    @Test
+    void arcAdaptsItsTargetOnGhostHits() {
+        // 1 and 2 fill T1, 1 moves to T2 and 3 pushes 2 into B1. Bringing 2 back
+        // from B1 grows p and evicts 1 into B2; bringing 1 back shrinks p again.
+        ArcPolicy arc = new ArcPolicy(2);
+        int[] trace = { 1, 2, 1, 3, 2, 1 };
+        boolean[] faults = { true, true, false, true, true, true };
+        int[] targets = { 0, 0, 0, 0, 1, 0 };
+        for (int i = 0; i < trace.length; i++) {
+            assertEquals(faults[i], arc.access(trace[i]), "step " + i);
+            assertEquals(targets[i], arc.target(), "step " + i);
+        }
+        assertEquals(3, arc.victim());
+    }
+
+    @Test
+    void twoQOnlyPromotesPagesRememberedInA1out() {
+        // A1in holds one page beyond its share of four frames and A1out two.
+        int[] trace = { 1, 2, 3, 4, 5, 1, 2, 1, 6, 7, 1, 2, 3 };
+        assertEquals(10, Simulation.countFaults(new TwoQPolicy(4), trace));
+        TwoQPolicy q = new TwoQPolicy(4);
+        for (int i = 0; i < 11; i++) q.access(trace[i]);
+        // 1 and 2 sit in Am, so 6 and 7 only displace A1in pages.
+        assertEquals(-1, q.slotOf(5));
+        assertTrue(q.slotOf(1) >= 0 && q.slotOf(2) >= 0);
+    }
+
+    @Test
+    void lirsKeepsItsLirPagesThroughHirChurn() {
+        // Three frames: two LIR, one HIR. 3, 4 and 5 cycle through the HIR frame
+        // while 1 and 2 stay; re-referencing 3 inside the stack promotes it.
+        int[] trace = { 1, 2, 3, 4, 1, 2, 5, 1, 2, 3, 3, 4 };
+        LirsPolicy lirs = new LirsPolicy(3);
+        assertEquals(7, Simulation.countFaults(lirs, trace));
+        assertEquals(9, Simulation.countFaults(new LruPolicy(3), trace));
+        assertTrue(lirs.slotOf(2) >= 0 && lirs.slotOf(3) >= 0 && lirs.slotOf(4) >= 0);
+        assertEquals(2, lirs.lirPages());
+        assertEquals(1, lirs.hirPages());
+    }
+
+    @Test
+    void clockProHandCheckedFaults() {
+        // 2 is evicted cold and unreferenced, so its return is a test hit and it
+        // comes back hot; 3 then returns the same way and 2 goes.
+        ClockProPolicy pro = new ClockProPolicy(2);
+        int[] trace = { 1, 2, 3, 2, 1, 3 };
+        boolean[] faults = { true, true, true, true, false, true };
+        for (int i = 0; i < trace.length; i++) assertEquals(faults[i], pro.access(trace[i]), "step " + i);
+        assertEquals(2, pro.victim());
+        assertTrue(pro.slotOf(1) >= 0 && pro.slotOf(3) >= 0);
+    }
+
+    @Test
+    void hotSetSurvivesAOneTimeScan() {
+        // A hot set that fits is referenced among a few one-off pages, which
+        // lets 2Q see it come back through A1out; then a long scan runs through.
+        assertEquals(60, faultsAfterScan(new LruPolicy(100)));
+        for (String name : ADAPTIVE) {
+            long faults = faultsAfterScan(Policies.create(name, 100, null));
+            assertTrue(faults <= 60 / 4, name + ": " + faults + " hot set faults after the scan");
+        }
+    }
+
+    /** Faults of five rounds over a 60-page hot set that follow a 1000-page scan. */
+    private static long faultsAfterScan(ReplacementPolicy policy) {
+        int once = 1_000_000;
+        for (int round = 0; round < 20; round++) {
+            for (int h = 0; h < 60; h++) policy.access(h);
+            for (int i = 0; i < 20; i++) policy.access(once++);
+        }
+        for (int i = 0; i < 1000; i++) policy.access(once++);
+        long faults = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int h = 0; h < 60; h++) if (policy.access(h)) faults++;
+        }
+        return faults;
+    }
+
+    @Test
+    void smallCapacitiesKeepTheirInvariants() {
+        for (int capacity = 1; capacity <= 3; capacity++) {
+            SplittableRandom random = new SplittableRandom(capacity);
+            int[] trace = new int[5000];
+            for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(capacity + 3);
+            ArcPolicy arc = new ArcPolicy(capacity);
+            LirsPolicy lirs = new LirsPolicy(capacity);
+            assertEquals(capacity - 1, lirs.lirLimit());
+            for (int page : trace) {
+                arc.access(page);
+                assertTrue(arc.target() >= 0 && arc.target() <= capacity, "ARC target " + arc.target());
+                lirs.access(page);
+                assertTrue(lirs.lirPages() <= lirs.lirLimit(), "LIR pages " + lirs.lirPages());
+                assertEquals(lirs.size(), lirs.lirPages() + lirs.hirPages());
+                assertTrue(lirs.hirPages() >= 1 || lirs.size() < capacity);
+            }
+            for (String name : ADAPTIVE) {
+                ReplacementPolicy policy = Policies.create(name, capacity, trace);
+                long faults = Simulation.countFaults(policy, trace);
+                assertTrue(faults >= Simulation.countFaults(new OptimalPolicy(capacity, trace), trace), name);
+                assertTrue(policy.size() <= capacity, name);
+            }
+        }
+    }
+
+    @Test
+    void oneFrameFaultsOnEveryChange() {
+        int[] trace = { 1, 1, 2, 2, 1, 3, 3, 3, 1 };
+        for (String name : ADAPTIVE) {
+            ReplacementPolicy policy = Policies.create(name, 1, trace);
+            boolean[] faults = new boolean[trace.length];
+            for (int i = 0; i < trace.length; i++) faults[i] = policy.access(trace[i]);
+            assertArrayEquals(new boolean[] { true, false, true, false, true, true, false, false, true }, faults, name);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** The access path of every policy must not allocate once its tables are sized. */
+class AllocationTest {
+    private static final int FRAMES = 64;
+
+    @Test
+    void steadyStateAccessesAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        int[] trace = new int[200_000];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < trace.length; i++) trace[i] = i % 5 == 0 ? i % (FRAMES * 3) : random.nextInt(FRAMES * 4);
+        long thread = Thread.currentThread().getId();
+        for (String name : Policies.NAMES) {
+            FramePolicy policy = (FramePolicy) Policies.create(name, FRAMES, trace);
+            for (int warm = 0; warm < 3; warm++) {
+                run(policy, trace);
+                policy.reset();
+            }
+            long before = threads.getThreadAllocatedBytes(thread);
+            long faults = run(policy, trace);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            assertEquals(0, allocated, name + " allocated while simulating (" + faults + " faults)");
+        }
+    }
+
+    private static long run(FramePolicy policy, int[] trace) {
+        long faults = 0;
+        for (int i = 0; i < trace.length; i++) {
+            boolean fault = i % 3 == 0 ? policy.write(trace[i]) : policy.access(trace[i]);
+            if (fault) faults++;
+        }
+        return faults;
+    }
+}
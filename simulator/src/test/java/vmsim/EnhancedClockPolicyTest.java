@@ -0,0 +1,109 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class EnhancedClockPolicyTest {
+    @Test
+    void cleanPagesGoBeforeDirtyOnes() {
+        EnhancedClockPolicy clock = new EnhancedClockPolicy(3);
+        clock.write(1);
+        clock.access(2);
+        clock.access(3);
+        // Every page is referenced: round 2 clears the bits, round 3 takes clean 2.
+        assertTrue(clock.access(4));
+        assertEquals(2, clock.victim());
+        assertFalse(clock.victimDirty());
+        // 3 is unreferenced and clean already, so round 1 finds it.
+        assertTrue(clock.access(5));
+        assertEquals(3, clock.victim());
+        // Only referenced clean pages and unreferenced dirty 1 are left.
+        assertTrue(clock.access(6));
+        assertEquals(1, clock.victim());
+        assertTrue(clock.victimDirty());
+    }
+
+    @Test
+    void matchesTheFourRoundSweep() {
+        for (int capacity = 1; capacity <= 16; capacity++) {
+            SplittableRandom random = new SplittableRandom(capacity);
+            EnhancedClockPolicy clock = new EnhancedClockPolicy(capacity);
+            Reference reference = new Reference(capacity);
+            for (int i = 0; i < 20_000; i++) {
+                int page = random.nextInt(capacity * 2);
+                int op = random.nextInt(10);
+                if (op == 0) {
+                    clock.clean(page);
+                    reference.clean(page);
+                    continue;
+                }
+                boolean fault = op < 4 ? clock.write(page) : op == 4 ? clock.prefetch(page) : clock.access(page);
+                boolean expected = reference.access(page, op < 4, op == 4);
+                assertEquals(expected, fault, "step " + i);
+                if (fault && reference.evicted) assertEquals(reference.victim, clock.victim(), "step " + i);
+            }
+        }
+    }
+
+    /** The textbook sweep: four full rounds at most, no skipping. */
+    private static final class Reference {
+        final int[] pages;
+        final boolean[] referenced, dirty;
+        int size, hand, victim;
+        boolean evicted;
+
+        Reference(int capacity) {
+            pages = new int[capacity];
+            referenced = new boolean[capacity];
+            dirty = new boolean[capacity];
+        }
+
+        int slotOf(int page) {
+            for (int s = 0; s < size; s++) if (pages[s] == page) return s;
+            return -1;
+        }
+
+        void clean(int page) {
+            int s = slotOf(page);
+            if (s >= 0) dirty[s] = false;
+        }
+
+        boolean access(int page, boolean write, boolean prefetch) {
+            evicted = false;
+            int s = slotOf(page);
+            if (s >= 0) {
+                if (prefetch) return false;
+                referenced[s] = true;
+                if (write) dirty[s] = true;
+                return false;
+            }
+            if (size < pages.length) {
+                s = size++;
+            } else {
+                s = sweep();
+                victim = pages[s];
+                evicted = true;
+            }
+            pages[s] = page;
+            referenced[s] = !prefetch;
+            dirty[s] = write;
+            return true;
+        }
+
+        int sweep() {
+            for (int round = 1; ; round++) {
+                boolean dirtyRound = round % 2 == 0;
+                for (int i = 0; i < pages.length; i++) {
+                    int s = hand;
+                    hand = (hand + 1) % pages.length;
+                    if (!referenced[s] && dirty[s] == dirtyRound) return s;
+                    if (dirtyRound) referenced[s] = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class FaultSweepTest {
+    private static final String[] STACK = { "LRU", "Optimal" };
+
+    @Test
+    void curveRowsMatchPerSizeRuns() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] trace = new int[20_000];
+        for (int i = 0; i < trace.length; i++) trace[i] = i % 3 == 0 ? i % 70 : random.nextInt(120);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        FaultSweep wide = new FaultSweep(trace, STACK, 1, 80);
+        for (String algorithm : STACK) assertTrue(wide.curve(algorithm), algorithm);
+        long[][] curves = wide.run(pool, null);
+        for (int frames = 1; frames <= 80; frames++) {
+            FaultSweep single = new FaultSweep(trace, STACK, frames, frames);
+            for (String algorithm : STACK) assertFalse(single.curve(algorithm), algorithm);
+            long[][] faults = single.run(pool, null);
+            for (int a = 0; a < STACK.length; a++) {
+                assertArrayEquals(new long[] { curves[a][frames - 1] }, faults[a], STACK[a] + " at " + frames);
+            }
+        }
+    }
+
+    @Test
+    void narrowOrDeepRangesAreSimulatedPerSize() {
+        int[] trace = { 1, 2, 3 };
+        assertFalse(new FaultSweep(trace, STACK, 4096, 4096).curve("LRU"));
+        assertTrue(new FaultSweep(trace, STACK, 4093, 4096).curve("LRU"));
+        assertFalse(new FaultSweep(trace, STACK, 4093, 4096).curve("Optimal"));
+        assertTrue(new FaultSweep(trace, STACK, 1, 4096).curve("Optimal"));
+        assertFalse(new FaultSweep(trace, STACK, 1, 4096).curve("FIFO"));
+    }
+
+    @Test
+    void curvePassStopsWhenCancelled() {
+        int[] trace = new int[1000];
+        for (String algorithm : STACK) {
+            assertThrows(CancellationException.class, () -> MissCurve.of(algorithm, trace, 10, () -> true), algorithm);
+        }
+    }
+}
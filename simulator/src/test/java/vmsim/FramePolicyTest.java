@@ -0,0 +1,31 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class FramePolicyTest {
+    @Test
+    void loweringTheLimitCountsTheDirtyPagesItDrops() {
+        for (String name : Policies.NAMES) {
+            if (Policies.needsTrace(name)) continue;
+            FramePolicy policy = (FramePolicy) Policies.create(name, 8, null, 1);
+            for (int page = 0; page < 8; page++) {
+                if (page % 2 == 0) policy.write(page);
+                else policy.access(page);
+            }
+            assertEquals(4, policy.dirtyPages(), name);
+            int evicted = policy.setLimit(2);
+            assertEquals(6, evicted, name);
+            int dirtyLeft = 0;
+            for (int page = 0; page < 8; page++) {
+                if (policy.isDirty(page)) dirtyLeft++;
+            }
+            assertEquals(dirtyLeft, policy.dirtyPages(), name);
+            assertEquals(4 - dirtyLeft, policy.droppedDirty(), name);
+
+            policy.reset();
+            assertEquals(0, policy.droppedDirty(), name);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class MissCurveTest {
+    private static final int MAX_FRAMES = 40;
+
+    @Test
+    void lruCurveMatchesPerSizeSimulation() {
+        for (int[] trace : traces()) {
+            MissCurve curve = MissCurve.lru(trace, MAX_FRAMES);
+            for (int frames = 1; frames <= MAX_FRAMES; frames++) {
+                assertEquals(Simulation.countFaults(new LruPolicy(frames), trace), curve.faults(frames), "LRU at " + frames + " frames");
+            }
+            assertEquals(-1, curve.crossCheck("LRU", trace, 1, MAX_FRAMES / 2, MAX_FRAMES));
+        }
+    }
+
+    @Test
+    void optimalCurveMatchesPerSizeSimulation() {
+        for (int[] trace : traces()) {
+            MissCurve curve = MissCurve.optimal(trace, MAX_FRAMES);
+            for (int frames = 1; frames <= MAX_FRAMES; frames++) {
+                assertEquals(Simulation.countFaults(new OptimalPolicy(frames, trace), trace), curve.faults(frames), "Optimal at " + frames + " frames");
+            }
+            assertEquals(-1, curve.crossCheck("Optimal", trace, 1, MAX_FRAMES / 2, MAX_FRAMES));
+        }
+    }
+
+    private static int[][] traces() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] uniform = new int[5000], skewed = new int[5000], loop = new int[5000], mixed = new int[5000];
+        for (int i = 0; i < uniform.length; i++) {
+            uniform[i] = random.nextInt(60);
+            skewed[i] = random.nextInt(1 + random.nextInt(80));
+            loop[i] = i % 33;
+            mixed[i] = random.nextInt(4) == 0 ? random.nextInt(100) : i % 25;
+        }
+        return new int[][] {uniform, skewed, loop, mixed, {}, {7, 7, 7}};
+    }
+}
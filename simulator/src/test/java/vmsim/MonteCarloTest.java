@@ -0,0 +1,68 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class MonteCarloTest {
+
+    @Test
+    void studentQuantilesMatchPublishedValues() {
+        assertEquals(12.706, MonteCarlo.t975(1), 1e-3);
+        assertEquals(4.303, MonteCarlo.t975(2), 1e-3);
+        assertEquals(3.182, MonteCarlo.t975(3), 1e-3);
+        assertEquals(2.571, MonteCarlo.t975(5), 1e-3);
+        assertEquals(2.228, MonteCarlo.t975(10), 1e-3);
+        assertEquals(2.042, MonteCarlo.t975(30), 1e-3);
+        // Past the table the expansion takes over without a jump.
+        assertEquals(2.040, MonteCarlo.t975(31), 2e-3);
+        assertEquals(2.021, MonteCarlo.t975(40), 2e-3);
+        assertEquals(2.000, MonteCarlo.t975(60), 2e-3);
+        assertEquals(1.980, MonteCarlo.t975(120), 2e-3);
+        assertEquals(1.960, MonteCarlo.t975(1_000_000), 1e-3);
+        for (int df = 1; df < 200; df++) assertTrue(MonteCarlo.t975(df + 1) < MonteCarlo.t975(df), "df " + df);
+    }
+
+    @Test
+    void intervalUsesStudentT() {
+        MonteCarlo.Result result = new MonteCarlo.Result(10, 12, 14);
+        assertEquals(12, result.mean(), 1e-9);
+        assertEquals(4, result.variance(), 1e-9);
+        assertEquals(4.303 * 2 / Math.sqrt(3), result.confidence95(), 1e-9);
+        assertEquals(12 - result.confidence95(), result.low(), 1e-9);
+        assertEquals(12 + result.confidence95(), result.high(), 1e-9);
+    }
+
+    @Test
+    void singleRunAndConstantRunsGiveAPointInterval() {
+        for (MonteCarlo.Result result : new MonteCarlo.Result[] { new MonteCarlo.Result(42), new MonteCarlo.Result(42, 42, 42, 42) }) {
+            assertEquals(42, result.mean());
+            assertEquals(0, result.variance());
+            assertEquals(0, result.confidence95());
+            assertEquals(42, result.low());
+            assertEquals(42, result.high());
+        }
+        assertThrows(IllegalArgumentException.class, MonteCarlo.Result::new);
+    }
+
+    @Test
+    void runsDependOnlyOnTheSeed() {
+        int[] trace = new int[2000];
+        for (int i = 0; i < trace.length; i++) trace[i] = (i * 7919) % 37;
+        MonteCarlo.Result first = new MonteCarlo(trace, "Random", 10, 20, 99).run(ForkJoinPool.commonPool());
+        ForkJoinPool pool = new ForkJoinPool(3);
+        MonteCarlo.Result again;
+        try {
+            again = new MonteCarlo(trace, "Random", 10, 20, 99).run(pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(first.faults(), again.faults());
+        assertEquals(20, first.runs());
+        assertEquals(1, new MonteCarlo(trace, "LRU", 10, 20, 99).run(ForkJoinPool.commonPool()).runs());
+    }
+}
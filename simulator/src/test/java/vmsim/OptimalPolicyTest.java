@@ -0,0 +1,73 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** Checks the heap-based Optimal against the textbook scan of the resident pages. */
+class OptimalPolicyTest {
+
+    @Test
+    void matchesLinearScanOnRandomTraces() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int round = 0; round < 200; round++) {
+            int[] trace = new int[random.nextInt(1, 400)];
+            int pages = random.nextInt(1, 30);
+            for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(pages);
+            int frames = random.nextInt(1, 12);
+            compare(trace, frames);
+        }
+    }
+
+    @Test
+    void matchesLinearScanOnLoops() {
+        int[] trace = new int[600];
+        for (int i = 0; i < trace.length; i++) trace[i] = i % 17;
+        for (int frames = 1; frames <= 18; frames++) compare(trace, frames);
+    }
+
+    /**
+     * Runs both in lockstep. Every Optimal victim must be a page the scan would
+     * pick, one with the farthest next use; pages never used again tie, so the
+     * scan then evicts whichever page Optimal chose.
+     */
+    private static void compare(int[] trace, int frames) {
+        OptimalPolicy policy = new OptimalPolicy(frames, trace);
+        List<Integer> resident = new ArrayList<>();
+        long faults = 0;
+        for (int i = 0; i < trace.length; i++) {
+            int page = trace[i];
+            boolean expectFault = !resident.contains(page);
+            boolean fault = policy.access(page);
+            assertEquals(expectFault, fault, "fault at " + i);
+            if (!fault) continue;
+            faults++;
+            if (resident.size() < frames) {
+                assertFalse(policy.evicted(), "eviction with a free frame at " + i);
+                resident.add(page);
+                continue;
+            }
+            assertTrue(policy.evicted(), "no eviction at " + i);
+            int farthest = -1;
+            for (int p : resident) farthest = Math.max(farthest, nextUse(trace, i, p));
+            int victim = policy.victim();
+            assertTrue(resident.contains(victim), "victim " + victim + " not resident at " + i);
+            assertEquals(farthest, nextUse(trace, i, victim), "victim " + victim + " at " + i);
+            resident.remove(Integer.valueOf(victim));
+            resident.add(page);
+        }
+        assertEquals(faults, Simulation.countFaults(new OptimalPolicy(frames, trace), trace));
+    }
+
+    private static int nextUse(int[] trace, int from, int page) {
+        for (int j = from + 1; j < trace.length; j++) {
+            if (trace[j] == page) return j;
+        }
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,65 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SampledPolicyTest {
+
+    @Test
+    void samplingEveryFrameIsExactLru() {
+        SplittableRandom random = new SplittableRandom(8);
+        for (int round = 0; round < 20; round++) {
+            int frames = 1 + random.nextInt(8);
+            int[] trace = new int[3000];
+            for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(3 * frames);
+            // Far more samples than frames: every eviction sees every frame.
+            SampledPolicy sampled = new SampledPolicy(frames, SampledPolicy.Mode.LRU, 400, 1, round);
+            assertEquals(Simulation.countFaults("LRU", frames, trace), Simulation.countFaults(sampled, trace), "round " + round);
+        }
+    }
+
+    @Test
+    void lfuEvictsTheLeastUsedPage() {
+        SampledPolicy lfu = new SampledPolicy(64, SampledPolicy.Mode.LFU, 1000, 1, 1);
+        for (int page = 0; page < 64; page++) assertTrue(lfu.access(page));
+        for (int page = 0; page < 63; page++) {
+            assertFalse(lfu.access(page));
+            assertFalse(lfu.access(page));
+        }
+        // Counters decay once per 64 references; page 63 still has the lowest one and makes room.
+        assertTrue(lfu.access(100));
+        for (int page = 0; page < 63; page++) assertFalse(lfu.access(page), "page " + page);
+        assertTrue(lfu.access(63));
+    }
+
+    @Test
+    void defaultSamplingStaysNearLru() {
+        SplittableRandom random = new SplittableRandom(2);
+        int[] trace = new int[200_000];
+        for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(4) == 0 ? random.nextInt(20_000) : random.nextInt(2000);
+        long lru = Simulation.countFaults("LRU", 1500, trace);
+        for (String algorithm : new String[] { "Sampled LRU", "Sampled LFU" }) {
+            long faults = Simulation.countFaults(algorithm, 1500, trace);
+            assertTrue(Math.abs(faults - lru) < lru / 10, algorithm + ": " + faults + " vs LRU " + lru);
+        }
+    }
+
+    @Test
+    void sameSeedAndResetReplayTheRun() {
+        int[] trace = new int[5000];
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(100);
+        SampledPolicy policy = new SampledPolicy(20, SampledPolicy.Mode.LFU, 3, 4, 77);
+        long first = Simulation.countFaults(policy, trace);
+        assertEquals(first, Simulation.countFaults(new SampledPolicy(20, SampledPolicy.Mode.LFU, 3, 4, 77), trace));
+        policy.reset();
+        assertEquals(first, Simulation.countFaults(policy, trace));
+        assertThrows(IllegalArgumentException.class, () -> new SampledPolicy(4, SampledPolicy.Mode.LRU, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SampledPolicy(4, SampledPolicy.Mode.LRU, 1, 0, 1));
+    }
+}
@@ -0,0 +1,128 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StepLogTest {
+    private static final int FRAMES = 6;
+    private static final int STEPS = 3000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void seekRebuildsEveryFrameTable() {
+        for (int interval : new int[] {1, 7, 64, 4096}) {
+            for (String name : new String[] {"FIFO", "LRU", "CLOCK", "ARC"}) {
+                int[] trace = trace(interval);
+                StepLog log = new StepLog(name, FRAMES, interval);
+                int[][] tables = record(log, Policies.create(name, FRAMES, trace, 1), trace);
+                SplittableRandom random = new SplittableRandom(interval);
+                // Forwards, backwards and jumping, so both the cursor and the checkpoints are used.
+                for (int step = -1; step < STEPS; step++) assertTable(tables, log, step);
+                for (int step = STEPS - 1; step >= -1; step--) assertTable(tables, log, step);
+                for (int i = 0; i < 2000; i++) assertTable(tables, log, random.nextInt(STEPS + 1) - 1);
+            }
+        }
+    }
+
+    @Test
+    void victimIsThePageTheSlotHeldBefore() {
+        int[] trace = trace(3);
+        StepLog log = new StepLog("LRU", FRAMES, 16);
+        ReplacementPolicy policy = new LruPolicy(FRAMES);
+        for (int step = 0; step < trace.length; step++) {
+            log.record(policy, trace[step]);
+            if (policy.evicted()) assertEquals(policy.victim(), log.victim(step), "step " + step);
+            else assertEquals(false, log.evicted(step));
+        }
+        assertEquals(Simulation.countFaults(new LruPolicy(FRAMES), trace), log.faults());
+    }
+
+    @Test
+    void saveAndLoadRoundTrip() throws IOException {
+        int[] trace = trace(11);
+        trace[5] = Integer.MIN_VALUE;
+        trace[6] = Integer.MAX_VALUE;
+        StepLog log = new StepLog("Optimal", FRAMES);
+        int[][] tables = record(log, Policies.create("Optimal", FRAMES, trace), trace);
+        Path file = dir.resolve("run.vmsl");
+        log.save(file);
+
+        StepLog loaded = StepLog.load(file);
+        assertEquals(log.algorithm(), loaded.algorithm());
+        assertEquals(log.frames(), loaded.frames());
+        assertEquals(log.steps(), loaded.steps());
+        assertEquals(log.faults(), loaded.faults());
+        for (int step = 0; step < STEPS; step++) {
+            assertEquals(log.page(step), loaded.page(step));
+            assertEquals(log.slot(step), loaded.slot(step));
+            assertEquals(log.fault(step), loaded.fault(step));
+            assertEquals(log.evicted(step), loaded.evicted(step));
+        }
+        for (int step = STEPS - 1; step >= -1; step -= 37) assertTable(tables, loaded, step);
+    }
+
+    @Test
+    void emptyLogRoundTrips() throws IOException {
+        Path file = dir.resolve("empty.vmsl");
+        new StepLog("FIFO", 3).save(file);
+        StepLog loaded = StepLog.load(file);
+        assertEquals(0, loaded.steps());
+        assertEquals(3, loaded.frames());
+    }
+
+    @Test
+    void loadRejectsDamagedFiles() throws IOException {
+        int[] trace = trace(2);
+        StepLog log = new StepLog("FIFO", FRAMES);
+        record(log, Policies.create("FIFO", FRAMES, trace), trace);
+        Path file = dir.resolve("run.vmsl");
+        log.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.vmsl");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> StepLog.load(truncated));
+
+        Path foreign = dir.resolve("foreign.vmsl");
+        byte[] other = bytes.clone();
+        other[0] = 'X';
+        Files.write(foreign, other);
+        assertThrows(IOException.class, () -> StepLog.load(foreign));
+    }
+
+    private static int[] trace(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] trace = new int[STEPS];
+        for (int i = 0; i < STEPS; i++) trace[i] = i % 4 == 0 ? i % 9 : random.nextInt(FRAMES * 3);
+        return trace;
+    }
+
+    /** Records the trace and returns the policy's frame table after every step. */
+    private static int[][] record(StepLog log, ReplacementPolicy policy, int[] trace) {
+        int[][] tables = new int[trace.length][];
+        for (int step = 0; step < trace.length; step++) {
+            log.record(policy, trace[step]);
+            tables[step] = new int[policy.size()];
+            for (int s = 0; s < tables[step].length; s++) tables[step][s] = policy.pageAt(s);
+        }
+        return tables;
+    }
+
+    private static void assertTable(int[][] tables, StepLog log, int step) {
+        int size = log.seek(step);
+        int[] actual = new int[size];
+        for (int s = 0; s < size; s++) actual[s] = log.frameAt(s);
+        assertArrayEquals(step < 0 ? new int[0] : tables[step], actual, "step " + step);
+    }
+}
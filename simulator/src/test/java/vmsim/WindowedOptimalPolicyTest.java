@@ -0,0 +1,66 @@
+package vmsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import vmsim.trace.ArrayTraceSource;
+
+class WindowedOptimalPolicyTest {
+
+    @Test
+    void windowOverTheWholeTraceIsOptimal() throws IOException {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int round = 0; round < 50; round++) {
+            int[] trace = randomTrace(random, 1 + random.nextInt(300), 1 + random.nextInt(25));
+            int frames = 1 + random.nextInt(10);
+            long optimal = Simulation.countFaults("Optimal", frames, trace);
+            assertEquals(optimal, windowed(frames, trace.length, trace), "round " + round);
+            assertEquals(optimal, windowed(frames, 4 * trace.length + 3, trace), "round " + round);
+        }
+    }
+
+    @Test
+    void shortWindowsNeverBeatOptimal() throws IOException {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int round = 0; round < 50; round++) {
+            int[] trace = randomTrace(random, 2000, 5 + random.nextInt(40));
+            int frames = 1 + random.nextInt(12);
+            long optimal = Simulation.countFaults("Optimal", frames, trace);
+            for (int window : new int[] { 1, 2, 5, 16, 100 }) {
+                long faults = windowed(frames, window, trace);
+                assertTrue(faults >= optimal, "window " + window + ": " + faults + " < " + optimal);
+            }
+        }
+    }
+
+    @Test
+    void textbookStringWithAShortWindow() throws IOException {
+        int[] trace = { 7, 0, 1, 2, 0, 3, 0, 4, 2, 3, 0, 3, 2, 1, 2, 0, 1, 7, 0, 1 };
+        assertEquals(9, windowed(3, trace.length, trace));
+        long[] shortWindow = WindowedOptimalPolicy.compareWithOptimal(trace, 3, 1);
+        assertEquals(9, shortWindow[1]);
+        assertEquals(windowed(3, 1, trace), shortWindow[0]);
+        assertTrue(shortWindow[0] > shortWindow[1]);
+    }
+
+    @Test
+    void referencesMustComeThroughTheWindow() {
+        WindowedOptimalPolicy policy = new WindowedOptimalPolicy(2, 4);
+        assertThrows(IllegalStateException.class, () -> policy.access(1));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedOptimalPolicy(2, 0));
+    }
+
+    private static long windowed(int frames, int window, int[] trace) throws IOException {
+        return Simulation.countFaults(new WindowedOptimalPolicy(frames, window), new ArrayTraceSource(trace));
+    }
+
+    private static int[] randomTrace(SplittableRandom random, int length, int pages) {
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) trace[i] = random.nextInt(pages);
+        return trace;
+    }
+}
@@ -0,0 +1,29 @@
+package vmsim.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class EscapingTest {
+
+    @Test
+    void jsonEscapesQuotesBackslashesAndControls() {
+        assertEquals("\"LRU\"", Escaping.json("LRU"));
+        assertEquals("\"say \\\"hi\\\"\"", Escaping.json("say \"hi\""));
+        assertEquals("\"C:\\\\traces\\\\a.txt\"", Escaping.json("C:\\traces\\a.txt"));
+        assertEquals("\"a\\u000ab\\u000d\\u0009c\"", Escaping.json("a\nb\r\tc"));
+        assertEquals("\"a,b ➝ c\"", Escaping.json("a,b ➝ c"));
+        assertEquals("\"\"", Escaping.json(""));
+    }
+
+    @Test
+    void csvQuotesOnlyWhenNeeded() {
+        assertEquals("Enhanced CLOCK", Escaping.csv("Enhanced CLOCK"));
+        assertEquals("", Escaping.csv(""));
+        assertEquals("\"zipf pages=1K,skew=1\"", Escaping.csv("zipf pages=1K,skew=1"));
+        assertEquals("\"6\"\" disk\"", Escaping.csv("6\" disk"));
+        assertEquals("\"\"\"\"", Escaping.csv("\""));
+        assertEquals("\"two\nlines\"", Escaping.csv("two\nlines"));
+        assertEquals("\"cr\rhere\"", Escaping.csv("cr\rhere"));
+    }
+}
@@ -0,0 +1,100 @@
+package vmsim.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import vmsim.Policies;
+import vmsim.ReplacementPolicy;
+import vmsim.Simulation;
+import vmsim.trace.ArrayTraceSource;
+
+class RunMetricsTest {
+    private static final int[] TEXTBOOK = { 7, 0, 1, 2, 0, 3, 0, 4, 2, 3, 0, 3, 2, 1, 2, 0, 1, 7, 0, 1 };
+
+    @Test
+    void missesSplitIntoColdCapacityAndConflict() throws IOException {
+        RunMetrics metrics = new RunMetrics(5, true);
+        long[] faults = run(metrics, "LRU", "FIFO", "Optimal");
+        assertArrayEquals(new long[] { 12, 15, 9 }, faults);
+        PolicyMetrics lru = metrics.policies().get(0), fifo = metrics.policies().get(1), opt = metrics.policies().get(2);
+        // LRU misses exactly the cold references and those deeper than its frames.
+        assertEquals(6, lru.getColdMisses());
+        assertEquals(6, lru.getCapacityMisses());
+        assertEquals(0, lru.getConflictMisses());
+        for (PolicyMetrics m : metrics.policies()) {
+            assertEquals(20, m.getAccesses());
+            assertEquals(m.getMisses(), m.getColdMisses() + m.getCapacityMisses() + m.getConflictMisses(), m.getAlgorithm());
+            assertEquals(m.getMisses() - 3, m.getEvictions(), m.getAlgorithm());
+        }
+        assertEquals(4, fifo.getConflictMisses());
+        assertEquals(0, opt.getConflictMisses());
+        assertEquals(8, lru.getHits());
+        assertEquals(0.4, lru.getHitRatio(), 1e-12);
+        assertEquals(6, metrics.getDistinctPages());
+        assertEquals(20, metrics.getReferences());
+        assertEquals(60, metrics.getAccesses());
+    }
+
+    @Test
+    void windowSeriesFollowsTheHits() throws IOException {
+        RunMetrics metrics = new RunMetrics(5, false);
+        run(metrics, "LRU");
+        ReplacementPolicy lru = Policies.create("LRU", 3, TEXTBOOK);
+        double[] expected = new double[4];
+        for (int i = 0; i < TEXTBOOK.length; i++) {
+            if (!lru.access(TEXTBOOK[i])) expected[i / 5] += 0.2;
+        }
+        PolicyMetrics m = metrics.policies().get(0);
+        assertArrayEquals(expected, m.windowHitRatios(), 1e-12);
+        assertEquals(expected[3], m.getWindowHitRatio(), 1e-12);
+        // Without stack distances only the totals are known.
+        assertEquals(12, m.getMisses());
+        assertEquals(0, m.getColdMisses() + m.getCapacityMisses() + m.getConflictMisses());
+    }
+
+    @Test
+    void reuseHistogramBucketsByPowersOfTwo() throws IOException {
+        RunMetrics metrics = new RunMetrics();
+        Simulation.countFaults(new ReplacementPolicy[] { Policies.create("LRU", 2, new int[0]) },
+            new ArrayTraceSource(new int[] { 1, 1, 2, 1, 3, 4, 5, 1 }), metrics);
+        long[] histogram = metrics.reuseHistogram();
+        // Distances: cold, 1, cold, 2, cold, cold, cold, 5.
+        assertEquals(5, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(1, histogram[2]);
+        assertEquals(1, histogram[3]);
+    }
+
+    @Test
+    void exportsCsvAndJson() throws IOException {
+        RunMetrics metrics = new RunMetrics(10, true);
+        run(metrics, "LRU", "Enhanced CLOCK");
+        StringBuilder csv = new StringBuilder();
+        metrics.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("algorithm,frames,accesses,hits,misses,evictions,cold_misses,capacity_misses,conflict_misses,hit_ratio", lines[0]);
+        assertEquals("LRU,3,20,8,12,9,6,6,0,0.4", lines[1]);
+        assertTrue(lines[2].startsWith("Enhanced CLOCK,3,20,"), lines[2]);
+
+        StringBuilder json = new StringBuilder();
+        metrics.writeJson(json);
+        String s = json.toString();
+        assertTrue(s.contains("\"references\": 20,"), s);
+        assertTrue(s.contains("{\"algorithm\": \"LRU\", \"frames\": 3, \"accesses\": 20, \"hits\": 8, \"misses\": 12"), s);
+        assertTrue(s.contains("\"windowHitRatios\": [0.2, 0.6]"), s);
+
+        StringBuilder empty = new StringBuilder();
+        new RunMetrics().writeJson(empty);
+        assertTrue(empty.toString().contains("\"policies\": []"), empty.toString());
+    }
+
+    private static long[] run(RunMetrics metrics, String... algorithms) throws IOException {
+        ReplacementPolicy[] policies = new ReplacementPolicy[algorithms.length];
+        for (int i = 0; i < policies.length; i++) policies[i] = Policies.create(algorithms[i], 3, TEXTBOOK);
+        return Simulation.countFaults(policies, new ArrayTraceSource(TEXTBOOK), metrics);
+    }
+}
@@ -0,0 +1,121 @@
+package vmsim.mmu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import vmsim.LruPolicy;
+import vmsim.trace.TraceFiles;
+import vmsim.trace.TraceSource;
+
+class TranslationSimulationTest {
+    private static final Latencies LATENCIES = new Latencies(1, 100, 100, 100_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tlbCountsHitsPerSet() {
+        Tlb directMapped = new Tlb(4, 1, "LRU");
+        assertEquals(0, hits(directMapped, 0, 4, 0, 4));
+        directMapped.reset();
+        assertEquals(2, hits(directMapped, 0, 1, 2, 3, 0, 1));
+
+        Tlb full = new Tlb(2, 2, "LRU");
+        assertEquals(1, full.sets());
+        assertEquals(1, hits(full, 1, 2, 1, 3, 2));
+
+        Tlb twoWay = new Tlb(4, 2, "FIFO");
+        // Even pages share set 0, odd pages set 1; 0 and 2 fit together, 4 pushes 0 out.
+        assertEquals(2, hits(twoWay, 0, 2, 1, 0, 2, 4, 0));
+    }
+
+    @Test
+    void walksCostOneAccessPerLevel() {
+        PageTable small = new PageTable(12, 10);
+        assertEquals(2, small.levels());
+        assertEquals(0, small.tables());
+        assertEquals(2, small.walk(0));
+        small.walk(1);
+        assertEquals(2, small.tables());
+        small.walk(1 << 10);
+        assertEquals(3, small.tables());
+        assertEquals(PageTable.ENTRY_BYTES * (1024 + 2 * 1024), small.bytes());
+
+        PageTable narrow = new PageTable(12, 4);
+        assertEquals(5, narrow.levels());
+        assertEquals(5, narrow.walk(0xFFFFF));
+        assertEquals(5, narrow.tables());
+        assertEquals(PageTable.ENTRY_BYTES * (16 + 4 * 16), narrow.bytes());
+
+        PageTable huge = new PageTable(22, 10);
+        assertEquals(1, huge.levels());
+        assertEquals(1, huge.walk(1023));
+        assertEquals(PageTable.ENTRY_BYTES * 1024, huge.bytes());
+
+        small.reset();
+        assertEquals(0, small.tables());
+        assertEquals(0, small.bytes());
+    }
+
+    @Test
+    void effectiveAccessTimeAddsWalksAndFaults() {
+        // 1 misses everywhere, 1 hits, 2 and 3 miss and fault, and by then the
+        // LRU TLB and frames have both dropped 1, so it misses and faults again.
+        TranslationSimulation.Result r = new TranslationSimulation(new LruPolicy(2), new PageTable(12, 10),
+            new Tlb(2, 2, "LRU"), LATENCIES).run(new int[] {1, 1, 2, 3, 1});
+        assertEquals(5, r.references());
+        assertEquals(1, r.tlbHits());
+        assertEquals(4, r.walks());
+        assertEquals(4, r.faults());
+        assertEquals(0.2, r.tlbHitRatio(), 1e-12);
+        assertEquals((5 * 101 + 4 * 2 * 100 + 4 * 100_000) / 5.0, r.effectiveAccessTime(), 1e-9);
+    }
+
+    @Test
+    void evictedPagesMissEvenWithATlbEntry() {
+        // The TLB still holds 1 after memory evicts it, but that entry is stale.
+        TranslationSimulation.Result r = new TranslationSimulation(new LruPolicy(1), new PageTable(12, 10),
+            new Tlb(8, 8, "LRU"), LATENCIES).run(new int[] {1, 2, 1});
+        assertEquals(0, r.tlbHits());
+        assertEquals(3, r.faults());
+    }
+
+    @Test
+    void upperHalfAddressesAreReadAsUnsigned() throws IOException {
+        Path file = dir.resolve("addresses.txt");
+        Files.write(file, "2147483648 4294967295 2147487744 4096".getBytes(StandardCharsets.US_ASCII));
+        int[] addresses;
+        try (TraceSource source = TraceFiles.open(file, true)) {
+            addresses = TraceFiles.readAll(source, 16);
+        }
+        assertArrayEquals(new int[] {0x80000, 0xFFFFF, 0x80001, 1}, TranslationSimulation.pageNumbers(addresses, 12));
+
+        TranslationSimulation.Result r = new TranslationSimulation(new LruPolicy(4), new PageTable(12, 10),
+            new Tlb(4, 4, "LRU"), LATENCIES).run(TranslationSimulation.pageNumbers(addresses, 12));
+        assertEquals(4, r.faults());
+        // 0x80000 and 0x80001 share a second-level table; 0xFFFFF and 1 need their own.
+        assertEquals(4, r.tables());
+
+        try (TraceSource source = TraceFiles.open(file)) {
+            assertThrows(IOException.class, () -> TraceFiles.readAll(source, 16));
+        }
+        Path tooBig = dir.resolve("too-big.txt");
+        Files.write(tooBig, "4294967296".getBytes(StandardCharsets.US_ASCII));
+        try (TraceSource source = TraceFiles.open(tooBig, true)) {
+            assertThrows(IOException.class, () -> TraceFiles.readAll(source, 16));
+        }
+    }
+
+    private static int hits(Tlb tlb, int... vpns) {
+        int hits = 0;
+        for (int vpn : vpns) if (tlb.access(vpn)) hits++;
+        return hits;
+    }
+}
@@ -0,0 +1,111 @@
+package vmsim.multi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import vmsim.Simulation;
+
+class MultiProcessSimulationTest {
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    @Test
+    void workingSetCountsDistinctPagesInTheWindow() {
+        WorkingSet ws = new WorkingSet(3);
+        int[] refs = { 1, 2, 1, 3, 4, 4, 4 };
+        int[] sizes = { 1, 2, 2, 3, 3, 2, 1 };
+        for (int i = 0; i < refs.length; i++) {
+            ws.reference(refs[i]);
+            assertEquals(sizes[i], ws.size(), "after reference " + i);
+        }
+        assertEquals(2.0, ws.mean(), 1e-9);
+        assertEquals(0.0, new WorkingSet(5).mean());
+    }
+
+    @Test
+    void localAllocationsAlwaysAddUpToTheFrames() {
+        ProcessTrace trace = ProcessTrace.interleave(new int[][] { cycle(12, 400), random(40, 600, 1), cycle(2, 300) }, 5);
+        for (MultiProcessSimulation.Allocator allocator : MultiProcessSimulation.Allocator.values()) {
+            // Stopping after each number of epochs exposes the allocation every rebalance left behind.
+            for (int epochs = 1; epochs * 50 <= trace.length(); epochs++) {
+                ProcessTrace prefix = prefix(trace, epochs * 50);
+                MultiProcessSimulation simulation = new MultiProcessSimulation(prefix, "LRU", 20, MultiProcessSimulation.Scope.LOCAL, allocator);
+                simulation.setEpoch(50);
+                simulation.setWorkingSetWindow(30);
+                MultiProcessSimulation.Result result = simulation.run(POOL);
+                assertEquals(epochs, result.epochs());
+                int total = 0;
+                for (int p = 0; p < result.processes(); p++) {
+                    assertTrue(result.frames(p) >= 1, allocator + " starved process " + p);
+                    total += result.frames(p);
+                }
+                assertEquals(20, total, allocator + " after " + epochs + " epochs");
+            }
+        }
+    }
+
+    @Test
+    void globalReplacementNeverHoldsMoreThanTheFrames() {
+        ProcessTrace trace = ProcessTrace.interleave(new int[][] { random(30, 500, 2), random(30, 500, 3) }, 7);
+        MultiProcessSimulation simulation = new MultiProcessSimulation(trace, "FIFO", 16, MultiProcessSimulation.Scope.GLOBAL, MultiProcessSimulation.Allocator.EQUAL);
+        MultiProcessSimulation.Result result = simulation.run(POOL);
+        assertEquals(16, result.frames(0) + result.frames(1));
+        // Pages of the two processes are distinct, so the shared policy sees 60 pages.
+        int[] ids = new int[trace.length()];
+        for (int i = 0; i < ids.length; i++) ids[i] = trace.process(i) * 1000 + trace.page(i);
+        assertEquals(Simulation.countFaults("FIFO", 16, ids), result.totalFaults());
+    }
+
+    @Test
+    void pageFaultFrequencyGrowsTheThrashingProcess() {
+        // Process 0 loops over 12 pages, thrashing under LRU in its equal share of 8; process 1 needs one page.
+        ProcessTrace trace = ProcessTrace.interleave(new int[][] { cycle(12, 1200), cycle(1, 1200) }, 4);
+        MultiProcessSimulation pff = local(trace, MultiProcessSimulation.Allocator.PAGE_FAULT_FREQUENCY);
+        MultiProcessSimulation equal = local(trace, MultiProcessSimulation.Allocator.EQUAL);
+        MultiProcessSimulation.Result grown = pff.run(POOL), fixed = equal.run(POOL);
+        assertEquals(8, fixed.frames(0));
+        assertEquals(1200, fixed.faults(0));
+        assertTrue(grown.frames(0) >= 12, "thrashing process ends with " + grown.frames(0) + " frames");
+        assertEquals(16 - grown.frames(0), grown.frames(1));
+        assertTrue(grown.faults(0) < fixed.faults(0) / 2, grown.faults(0) + " faults");
+    }
+
+    @Test
+    void localReplacementNeedsAFramePerProcess() {
+        ProcessTrace trace = ProcessTrace.parse("1:1 2:1 3:1");
+        assertThrows(IllegalArgumentException.class,
+            () -> new MultiProcessSimulation(trace, "LRU", 2, MultiProcessSimulation.Scope.LOCAL, MultiProcessSimulation.Allocator.EQUAL));
+    }
+
+    private static MultiProcessSimulation local(ProcessTrace trace, MultiProcessSimulation.Allocator allocator) {
+        MultiProcessSimulation simulation = new MultiProcessSimulation(trace, "LRU", 16, MultiProcessSimulation.Scope.LOCAL, allocator);
+        simulation.setEpoch(100);
+        return simulation;
+    }
+
+    private static ProcessTrace prefix(ProcessTrace trace, int length) {
+        int[] pids = new int[length], pages = new int[length];
+        for (int i = 0; i < length; i++) {
+            pids[i] = trace.pid(trace.process(i));
+            pages[i] = trace.page(i);
+        }
+        return ProcessTrace.of(pids, pages);
+    }
+
+    private static int[] cycle(int pages, int length) {
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) trace[i] = i % pages;
+        return trace;
+    }
+
+    private static int[] random(int pages, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] trace = new int[length];
+        Arrays.setAll(trace, i -> random.nextInt(pages));
+        return trace;
+    }
+}
@@ -0,0 +1,37 @@
+package vmsim.prefetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import vmsim.FramePolicy;
+import vmsim.Policies;
+import vmsim.Simulation;
+
+class PrefetchSimulationTest {
+    private static final int FRAMES = 8;
+
+    @Test
+    void unsupportedPoliciesAreRejectedUpFront() {
+        int[] trace = new int[2000];
+        for (int i = 0; i < trace.length; i++) trace[i] = i % 3 == 0 ? i / 3 : i % 40;
+        for (String name : Policies.NAMES) {
+            FramePolicy policy = (FramePolicy) Policies.create(name, FRAMES, trace, 1);
+            assertEquals(policy.supportsPrefetch(), Policies.supportsPrefetch(name), name);
+            if (!policy.supportsPrefetch()) {
+                assertThrows(IllegalArgumentException.class, () -> new PrefetchSimulation(policy, null), name);
+                continue;
+            }
+            PrefetchSimulation.Result baseline = new PrefetchSimulation(policy, null).run(trace);
+            if (!Policies.randomized(name)) {
+                assertEquals(Simulation.countFaults(Policies.create(name, FRAMES, trace), trace), baseline.faults(), name);
+            }
+            for (String prefetcher : Prefetchers.NAMES) {
+                PrefetchSimulation.Result r = new PrefetchSimulation(policy, Prefetchers.create(prefetcher, FRAMES)).run(trace);
+                assertTrue(r.useful() + r.pollution() <= r.prefetched(), name + "/" + prefetcher);
+            }
+        }
+        assertTrue(!Policies.supportsPrefetch("Optimal"));
+    }
+}
@@ -0,0 +1,92 @@
+package vmsim.sampling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import vmsim.MissCurve;
+import vmsim.MonteCarlo;
+import vmsim.Simulation;
+import vmsim.trace.ArrayTraceSource;
+
+class SampledSweepTest {
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    @Test
+    void fullRateReproducesTheExactCurves() throws IOException {
+        int[] trace = skewed(200_000, 5000, 11);
+        String[] algorithms = { "LRU", "FIFO", "CLOCK", "ARC" };
+        int[] frames = { 1, 7, 64, 500, 2000 };
+        SampledSweep sweep = new SampledSweep(algorithms, frames, 1, 3, 5);
+        SampledSweep.Result result = sweep.run(new ArrayTraceSource(trace), POOL, null);
+        assertEquals(trace.length, result.references());
+        for (long sampled : result.sampledReferences()) assertEquals(trace.length, sampled);
+        MissCurve lru = MissCurve.lru(trace, 2000);
+        for (int c = 0; c < frames.length; c++) {
+            assertEquals(frames[c], sweep.scaledFrames(c));
+            assertEquals(lru.faults(frames[c]), result.faults(0, c), "LRU at " + frames[c]);
+            for (int a = 0; a < algorithms.length; a++) {
+                MonteCarlo.Result estimate = result.estimate(a, c);
+                assertEquals(Simulation.countFaults(algorithms[a], frames[c], trace), Math.round(estimate.mean()), algorithms[a]);
+                assertEquals(0, estimate.variance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void lowRateEstimatesStayClose() throws IOException {
+        int[] trace = skewed(1_000_000, 200_000, 3);
+        int[] frames = { 1000, 5000, 20_000, 50_000 };
+        SampledSweep sweep = new SampledSweep(new String[] { "LRU" }, frames, 0.05, SampledSweep.DEFAULT_SETS, 42);
+        SampledSweep.Result result = sweep.run(new ArrayTraceSource(trace), POOL, null);
+        MissCurve exact = MissCurve.lru(trace, 50_000);
+        for (int c = 0; c < frames.length; c++) {
+            double error = Math.abs(result.faults(0, c) - exact.faults(frames[c])) / (double) trace.length;
+            assertTrue(error < 0.02, frames[c] + " frames: miss ratio off by " + error);
+        }
+    }
+
+    @Test
+    void shardsSamplesArePageConsistentAndDisjoint() {
+        Shards shards = new Shards(0.1, 4, 9);
+        int[] batch = new int[100_000];
+        for (int i = 0; i < batch.length; i++) batch[i] = i % 50_000;
+        int[][] out = new int[4][batch.length];
+        int[] fill = new int[4];
+        shards.filter(batch, batch.length, out, fill);
+        for (int s = 0; s < 4; s++) {
+            // Each page is in or out of a sample with all its references, at about the rate.
+            assertEquals(0, fill[s] % 2);
+            assertEquals(0.1, fill[s] / (double) batch.length, 0.01);
+            for (int i = 0; i < fill[s]; i++) assertTrue(shards.sampled(out[s][i], s));
+        }
+        for (int page = 0; page < 50_000; page++) {
+            int in = 0;
+            for (int s = 0; s < 4; s++) if (shards.sampled(page, s)) in++;
+            assertTrue(in <= 1, "page " + page + " is in " + in + " samples");
+        }
+        assertEquals(100, shards.scale(1000));
+        assertEquals(1, shards.scale(3));
+        assertThrows(IllegalArgumentException.class, () -> new Shards(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Shards(1.5, 1, 1));
+        assertFalse(new Shards(0.5, 3, 1).sampled(7, 0) && new Shards(0.5, 3, 1).sampled(7, 1));
+    }
+
+    @Test
+    void optimalCannotBeSampled() {
+        assertThrows(IllegalArgumentException.class, () -> new SampledSweep(new String[] { "Optimal" }, new int[] { 4 }, 0.5, 2, 1));
+    }
+
+    /** References to {@code pages} pages, a tenth of them drawing most of the traffic. */
+    private static int[] skewed(int length, int pages, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) trace[i] = random.nextInt(4) == 0 ? random.nextInt(pages) : random.nextInt(pages / 10);
+        return trace;
+    }
+}
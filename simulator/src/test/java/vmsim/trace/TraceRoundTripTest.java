@@ -0,0 +1,82 @@
+package vmsim.trace;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceRoundTripTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void binaryArchiveRoundTripsNegativeDeltasAndExtremes() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        int[] trace = new int[100_000];
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = i % 1000 == 0 ? Integer.MIN_VALUE : i % 1000 == 1 ? Integer.MAX_VALUE
+                : i % 2 == 0 ? random.nextInt(1 << 20) : random.nextInt();
+        }
+        Path file = dir.resolve("trace.vmtr");
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(file)) {
+            assertEquals(trace.length, writer.writeAll(new ArrayTraceSource(trace)));
+        }
+        try (TraceSource source = TraceFiles.open(file)) {
+            assertTrue(source instanceof BinaryTraceReader);
+            assertArrayEquals(trace, TraceFiles.readAll(source, trace.length));
+        }
+    }
+
+    @Test
+    void textTraceSurvivesArchiving() throws IOException {
+        // Long enough that numbers straddle the reader's 1 MiB buffer.
+        SplittableRandom random = new SplittableRandom(9);
+        int[] trace = new int[300_000];
+        BitSet stores = new BitSet();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = random.nextInt(2_000_000) - 1000;
+            text.append(trace[i]);
+            if (i % 7 == 0) {
+                text.append('w');
+                stores.set(i);
+            } else if (i % 11 == 0) {
+                text.append('r');
+            }
+            text.append(i % 3 == 0 ? ", " : i % 5 == 0 ? "\n" : " ");
+        }
+        Path textFile = dir.resolve("trace.txt"), archive = dir.resolve("trace.vmtr");
+        Files.write(textFile, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        BitSet writes = new BitSet();
+        try (TraceSource source = TraceFiles.open(textFile)) {
+            assertTrue(source instanceof TextTraceReader);
+            assertArrayEquals(trace, TraceFiles.readAll(source, trace.length, writes));
+        }
+        assertEquals(stores, writes);
+
+        assertEquals(trace.length, TraceFiles.archive(textFile, archive));
+        assertTrue(Files.size(archive) < Files.size(textFile));
+        try (TraceSource source = TraceFiles.open(archive)) {
+            assertArrayEquals(trace, TraceFiles.readAll(source, trace.length));
+        }
+    }
+
+    @Test
+    void readAllRefusesLongerTraces() throws IOException {
+        Path file = dir.resolve("short.txt");
+        Files.write(file, "1 2 3 4 5".getBytes(StandardCharsets.US_ASCII));
+        try (TraceSource source = TraceFiles.open(file)) {
+            IOException e = org.junit.jupiter.api.Assertions.assertThrows(IOException.class, () -> TraceFiles.readAll(source, 4));
+            assertTrue(e.getMessage().contains("longer than 4"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package vmsim.workload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import vmsim.trace.TraceFiles;
+
+class WorkloadsTest {
+
+    @Test
+    void specsRejectUnknownOrMalformedSettings() {
+        for (String spec : new String[] {
+                "zipf pages=10 bogus=1", "loop pages=8 skew=1", "nosuch pages=8", "zipf pages",
+                "zipf pages=1.5", "uniform pages=ten", "uniform length=-3", "uniform pages=0",
+                "zipf skew=fast", "uniform seed=1.5", "replay scale=2", "uniform pages=4G" }) {
+            assertThrows(IllegalArgumentException.class, () -> Workloads.open(spec), spec);
+        }
+    }
+
+    @Test
+    void countsTakeBinarySuffixesAndExponents() throws IOException {
+        assertEquals(5L << 20, Workloads.open("loop pages=4 length=5M").length());
+        assertEquals(5_000_000, Workloads.open("loop pages=4 length=5e6").length());
+        assertEquals(2048, Workloads.open("loop pages=4 length=2k").length());
+        assertEquals(512, Workloads.open("loop pages=4 length=0.5K").length());
+        assertEquals(1_000_000, Workloads.open("loop").length());
+        assertArrayEquals(new int[] { 0, 1, 2, 0, 1, 2, 0 }, all("LOOP, pages=3, length=7"));
+    }
+
+    @Test
+    void sameSpecAndSeedReplayTheSameReferences() throws IOException {
+        for (String spec : new String[] { "uniform pages=5000", "zipf pages=5000", "scan pages=5000", "phases set=300 phase=1000" }) {
+            int[] first = all(spec + " length=20000 seed=7");
+            assertArrayEquals(first, all(spec + " length=20000 seed=7"), spec);
+            assertFalse(Arrays.equals(first, all(spec + " length=20000 seed=8")), spec);
+        }
+        assertArrayEquals(all("zipf pages=100 length=1000"), all("zipf pages=100 length=1000 seed=1"));
+    }
+
+    @Test
+    void aliasTableAndRejectionInversionDrawTheSameDistribution() {
+        double skew = 0.99;
+        int n = 2_000_000;
+        // One page more than the alias table holds switches to rejection-inversion.
+        long[] alias = histogram(new ZipfWorkload(ZipfWorkload.ALIAS_LIMIT, skew, n, 3), 20);
+        long[] rejection = histogram(new ZipfWorkload(ZipfWorkload.ALIAS_LIMIT + 1, skew, n, 3), 20);
+        double[] expected = zipf(ZipfWorkload.ALIAS_LIMIT, skew, 20);
+        for (int k = 0; k <= 20; k++) {
+            double p = expected[k], tolerance = 5 * Math.sqrt(p * (1 - p) / n);
+            assertEquals(p, alias[k] / (double) n, tolerance, "alias, page " + k);
+            assertEquals(p, rejection[k] / (double) n, tolerance, "rejection, page " + k);
+        }
+    }
+
+    @Test
+    void smallAliasTablesAreExact() {
+        int n = 1_000_000;
+        long[] counts = histogram(new ZipfWorkload(10, 1.5, n, 9), 9);
+        double[] expected = zipf(10, 1.5, 9);
+        assertEquals(0, counts[10]);
+        for (int k = 0; k < 10; k++) {
+            double p = expected[k];
+            assertEquals(p, counts[k] / (double) n, 5 * Math.sqrt(p * (1 - p) / n), "page " + k);
+        }
+    }
+
+    private static int[] all(String spec) throws IOException {
+        try (Workload workload = Workloads.open(spec)) {
+            return TraceFiles.readAll(workload, Integer.MAX_VALUE);
+        }
+    }
+
+    /** Counts of pages 0..last, then of every page above them. */
+    private static long[] histogram(Workload workload, int last) {
+        long[] counts = new long[last + 2];
+        int[] buffer = new int[4096];
+        for (int r; (r = workload.read(buffer)) >= 0; ) {
+            for (int i = 0; i < r; i++) {
+                int page = buffer[i];
+                assertTrue(page >= 0);
+                counts[Math.min(page, last + 1)]++;
+            }
+        }
+        return counts;
+    }
+
+    /** Probabilities of pages 0..last of a Zipf distribution over {@code pages}, then of the rest. */
+    private static double[] zipf(int pages, double skew, int last) {
+        double sum = 0;
+        for (int k = 1; k <= pages; k++) sum += Math.pow(k, -skew);
+        double[] p = new double[last + 2];
+        double head = 0;
+        for (int k = 0; k <= last; k++) head += p[k] = Math.pow(k + 1, -skew) / sum;
+        p[last + 1] = 1 - head;
+        return p;
+    }
+}
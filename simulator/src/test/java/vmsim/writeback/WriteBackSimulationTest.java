@@ -0,0 +1,66 @@
+package vmsim.writeback;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+import vmsim.ClockPolicy;
+import vmsim.EnhancedClockPolicy;
+import vmsim.FifoPolicy;
+
+class WriteBackSimulationTest {
+    /** 10 ns per operation plus 1 ns per page, so a single page costs 11. */
+    private static final IoCost COST = new IoCost(10, 1);
+
+    @Test
+    void dirtyEvictionsAreWrittenBackOnTheFaultPath() {
+        // FIFO over two frames: 3 evicts dirty 1, 4 evicts clean 2, 1 evicts
+        // 3 and 2 evicts dirty 4, so six page-ins and two write-backs.
+        int[] trace = { 1, 2, 3, 4, 1, 2 };
+        WriteBackSimulation.Result r = new WriteBackSimulation(new FifoPolicy(2), COST).run(trace, writes(0, 3, 5));
+        assertEquals(6, r.references());
+        assertEquals(3, r.writes());
+        assertEquals(6, r.faults());
+        assertEquals(2, r.writeBacks());
+        assertEquals(0, r.flushes());
+        assertEquals(8, r.ioOperations());
+        assertEquals(8 * 11.0, r.ioTime(), 1e-9);
+    }
+
+    @Test
+    void flusherBatchesDirtyPagesIntoOneOperation() {
+        // FIFO over three frames. After the second reference the flusher cleans
+        // 1 and 2 in one operation of two pages, so their evictions are free and
+        // later passes find nothing dirty.
+        int[] trace = { 1, 2, 3, 4, 5, 6 };
+        BitSet writes = writes(0, 1);
+        WriteBackSimulation simulation = new WriteBackSimulation(new FifoPolicy(3), COST);
+        simulation.setFlusher(2, 2);
+        WriteBackSimulation.Result r = simulation.run(trace, writes);
+        assertEquals(6, r.faults());
+        assertEquals(0, r.writeBacks());
+        assertEquals(2, r.flushedPages());
+        assertEquals(1, r.flushes());
+        assertEquals(7, r.ioOperations());
+        assertEquals(6 * 11.0 + 12, r.ioTime(), 1e-9);
+
+        WriteBackSimulation unflushed = new WriteBackSimulation(new FifoPolicy(3), COST);
+        WriteBackSimulation.Result baseline = unflushed.run(trace, writes);
+        assertEquals(2, baseline.writeBacks());
+        assertEquals(8 * 11.0, baseline.ioTime(), 1e-9);
+    }
+
+    @Test
+    void enhancedClockSparesDirtyPages() {
+        int[] trace = { 1, 2, 3, 4 };
+        BitSet writes = writes(0);
+        assertEquals(1, new WriteBackSimulation(new ClockPolicy(3), COST).run(trace, writes).writeBacks());
+        assertEquals(0, new WriteBackSimulation(new EnhancedClockPolicy(3), COST).run(trace, writes).writeBacks());
+    }
+
+    private static BitSet writes(int... stores) {
+        BitSet writes = new BitSet();
+        for (int i : stores) writes.set(i);
+        return writes;
+    }
+}